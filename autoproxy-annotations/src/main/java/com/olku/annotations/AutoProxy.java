@@ -14,6 +14,92 @@ public @interface AutoProxy {
     /** Type generator class. */
     Class<? extends AutoProxyClassGenerator> value() default AutoProxy.Default.class;
 
+    /**
+     * Generate companion Hooks_{Type} interface with one typed predicate per method. Proxy calls
+     * typed hooks instead of varargs predicate, no arguments array allocation and no boxing.
+     */
+    boolean hooks() default false;
+
+    /**
+     * Generate lock-free gate of methods: enableAll(), enable(int...), disable(int...), setGate(boolean).
+     * Disabled methods or closed gate yield without predicate call. Requires autoproxy-runtime.
+     */
+    boolean gate() default false;
+
+    /**
+     * Cache predicate result per method till explicit invalidate() call. Arguments of the call are
+     * not taken into account. Turns on {@link #gate()}.
+     */
+    boolean cachePredicate() default false;
+
+    /**
+     * Generate Async_{Type} interface and Proxy_Async_{Type} implementation, each method returns CompletableFuture
+     * and inner call executed on provided executor (virtual threads executor on JDK 21+). Canceled by predicate
+     * calls return already completed futures.
+     */
+    boolean async() default false;
+
+    /**
+     * Actor mode: inner calls are serialized via lock-free mailbox drained by executor. VOID methods post
+     * a message, other methods block the caller until the result is ready. Requires autoproxy-runtime.
+     */
+    boolean actor() default false;
+
+    /**
+     * Collect per-method call, rejected and error counters and latency histogram of the calls, available via
+     * metrics() snapshots. Requires autoproxy-runtime, JMX export on JVM requires autoproxy-jmx.
+     */
+    boolean metrics() default false;
+
+    /**
+     * Emit JDK Flight Recorder event per call: method, ordinal, predicate decision, duration and exception type.
+     * Event type is generated as nested CallEvent class of the proxy. Requires JDK 8u262+ or 11+.
+     */
+    boolean flightRecorder() default false;
+
+    /**
+     * Inner instance can be replaced at runtime: rebind(), unbind() and compareAndRebind(). Inner instance
+     * published lock-free, calls of unbound proxy go to yield without predicate.
+     */
+    boolean rebindable() default false;
+
+    /**
+     * Generate constructor with Supplier of inner instance. Instance created on the first call allowed by
+     * predicate, calls rejected by predicate never create it. Cannot be combined with {@link #rebindable()}.
+     */
+    boolean lazy() default false;
+
+    /**
+     * Hold inner instance by weak reference, so proxy does not leak it (e.g. detached view). Calls after
+     * collection of the instance go to yield without predicate, proxy `onInnerCollected()` called after
+     * collection. Requires autoproxy-runtime.
+     */
+    boolean weak() default false;
+
+    /**
+     * Generate Multicast_{Type} that broadcasts each call to copy-on-write array of delegates, predicate is
+     * checked per delegate. Result of non-VOID methods selected by {@link Multicast} policy.
+     */
+    boolean multicast() default false;
+
+    /**
+     * Generate ScatterGather_{Type} that calls all delegates in parallel on provided executor and combines
+     * results by {@link Reduce} strategy. Requires autoproxy-runtime.
+     */
+    boolean scatterGather() default false;
+
+    /**
+     * Generate Pool_{Type} that dispatches each call to one delegate of the pool: round-robin, least loaded
+     * of two random delegates or sticky per thread. Unhealthy delegates are skipped. Requires autoproxy-runtime.
+     */
+    boolean pool() default false;
+
+    /**
+     * Generate Sharded_{Type} that routes each call to the delegate owning {@link ShardKey} argument. Each
+     * method must have shard key. Requires autoproxy-runtime.
+     */
+    boolean sharded() default false;
+
     /** Represents DEFAULT class generator. CommonClassGenerator class in processors module. */
     abstract class Default implements AutoProxyClassGenerator {
     }
@@ -34,4 +120,186 @@ public @interface AutoProxy {
     @Target(value = ElementType.METHOD)
     @interface AfterCall {
     }
+
+    /**
+     * Record call canceled by predicate instead of dropping it. Last call per method wins, replay by
+     * flushDeferred(). Only for VOID methods. Requires autoproxy-runtime.
+     */
+    @Retention(CLASS)
+    @Target(value = ElementType.METHOD)
+    @interface Defer {
+    }
+
+    /**
+     * Coalesce bursty calls: inside the window only the latest call is delivered to inner instance via
+     * proxy scheduler(). Only for VOID methods. Requires autoproxy-runtime.
+     */
+    @Retention(CLASS)
+    @Target(value = ElementType.METHOD)
+    @interface Coalesce {
+        /** Coalescing window in milliseconds. */
+        long windowMs() default 16;
+    }
+
+    /**
+     * Accumulate arguments of single item VOID method and deliver them to the batch method of inner instance,
+     * e.g. `onItem(T)` to `onItems(List&lt;T&gt;)`. Delivery happens when batch is full, when delay expires
+     * (via proxy scheduler()) or on flushBatches(). Requires autoproxy-runtime.
+     */
+    @Retention(CLASS)
+    @Target(value = ElementType.METHOD)
+    @interface Batch {
+        /** Name of the inner instance method that accepts List, Collection or Iterable of items. */
+        String target();
+
+        /** Maximum number of items in one batch. */
+        int maxSize() default 64;
+
+        /** Maximum delay of the first item in batch, in milliseconds. */
+        long maxDelayMs() default 16;
+    }
+
+    /**
+     * Cache results of the method in bounded LRU cache keyed by arguments, single int/long argument is used
+     * as primitive key. Predicate is checked before cache lookup, cached value is the result after
+     * @AfterCall processing. Only for non-VOID methods. Requires autoproxy-runtime.
+     */
+    @Retention(CLASS)
+    @Target(value = ElementType.METHOD)
+    @interface Cached {
+        /** Maximum number of cached results. */
+        int maxEntries() default 256;
+
+        /** Time to live of the result in milliseconds, zero - results never expire. */
+        long ttlMs() default 0;
+    }
+
+    /** Result policy of non-VOID method in Multicast_{Type}. Canceled for all delegates call uses @Yield. */
+    @Retention(CLASS)
+    @Target(value = ElementType.METHOD)
+    @interface Multicast {
+        /** Result of the first allowed delegate, other delegates are not called. */
+        String FIRST = "first";
+        /** All allowed delegates are called, result of the last one returned. */
+        String LAST = "last";
+        /** All allowed delegates are called, results combined by reduce() method. */
+        String REDUCE = "reduce";
+
+        /** Result policy. */
+        String value() default LAST;
+    }
+
+    /**
+     * Results strategy of the method in ScatterGather_{Type}. Failed delegates are skipped, if no delegate
+     * succeeded failure is re-thrown. No results at all (deadline) uses @Yield.
+     */
+    @Retention(CLASS)
+    @Target(value = ElementType.METHOD)
+    @interface Reduce {
+        /** The first successful result, other calls are canceled. */
+        String FIRST = "first";
+        /** All successful results combined by reduce() method in order of delegates. */
+        String ALL = "all";
+
+        /** Results strategy. */
+        String value() default ALL;
+
+        /** Maximum wait time in milliseconds, partial results are reduced after it. Zero - wait for all. */
+        long deadlineMs() default 0;
+    }
+
+    /**
+     * Limit number of concurrent calls of the method. On type level it is applied to each method, method
+     * annotation overrides it. Call without free permit goes to @Yield without waiting. Requires autoproxy-runtime.
+     */
+    @Retention(CLASS)
+    @Target(value = {ElementType.TYPE, ElementType.METHOD})
+    @interface Bulkhead {
+        /** Maximum number of concurrent calls. */
+        int maxConcurrent();
+    }
+
+    /**
+     * Limit rate of the method calls by token bucket. Call without token goes to @Yield without waiting.
+     * Time taken from proxy `clock()`. Requires autoproxy-runtime.
+     */
+    @Retention(CLASS)
+    @Target(value = ElementType.METHOD)
+    @interface RateLimit {
+        /** Rate of the allowed calls. */
+        double permitsPerSecond();
+
+        /** Number of calls allowed at once after idle time. */
+        int burst() default 1;
+    }
+
+    /**
+     * Fail fast while inner instance fails: outcomes of the last calls tracked in sliding window, circuit
+     * opens when failures reach ratio and calls go to @Yield. After open time one probe call decides close
+     * or open again. State changes reported to proxy `onCircuitStateChanged()`. Requires autoproxy-runtime.
+     */
+    @Retention(CLASS)
+    @Target(value = ElementType.METHOD)
+    @interface CircuitBreaker {
+        /** Ratio of failed calls in full window that opens circuit, (0..1]. */
+        double failureRatio() default 0.5;
+
+        /** Number of the last calls in sliding window. */
+        int window() default 20;
+
+        /** Time in open state before probe call. */
+        long openMs() default 5000;
+
+        /** Calls longer than this time count as failures, 0 - only exceptions are failures. */
+        long slowMs() default 0;
+    }
+
+    /**
+     * Limit time of the inner call: call executed on proxy `timeoutExecutor()`, on timeout the call is canceled
+     * and @Yield value returned. Deadline propagated to nested calls with timeout. Requires autoproxy-runtime.
+     */
+    @Retention(CLASS)
+    @Target(value = ElementType.METHOD)
+    @interface Timeout {
+        /** Timeout in milliseconds. */
+        long value();
+    }
+
+    /**
+     * Hedge slow calls of idempotent method: if inner instance does not return in time, the same call is issued
+     * to secondary instance (proxy constructor with secondary), first result wins and the other call is canceled.
+     * Calls executed on proxy `hedgeExecutor()`. Requires autoproxy-runtime.
+     */
+    @Retention(CLASS)
+    @Target(value = ElementType.METHOD)
+    @interface Hedge {
+        /** Delay of the secondary call. */
+        long afterMs();
+    }
+
+    /**
+     * Parameter used as shard key in Sharded_{Type}. `int`/`long` keys hashed without boxing, other keys
+     * by hashCode().
+     */
+    @Retention(CLASS)
+    @Target(value = ElementType.PARAMETER)
+    @interface ShardKey {
+    }
+
+    /**
+     * Deduplicate concurrent calls with equal arguments: one caller calls inner instance, others receive its
+     * result or exception. Async variant shares one future. Only for non-VOID methods. Requires autoproxy-runtime.
+     */
+    @Retention(CLASS)
+    @Target(value = ElementType.METHOD)
+    @interface SingleFlight {
+    }
+
+    /** Drop cached results after the call of mutating method. */
+    @Retention(CLASS)
+    @Target(value = ElementType.METHOD)
+    @interface Invalidates {
+        /** Names of the cached methods, empty - all caches of the proxy. */
+        String[] value() default {};
+    }
 }
@@ -0,0 +1,35 @@
+package com.olku.runtime.jmx;
+
+import com.olku.runtime.ProxyMetrics;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.ObjectName;
+
+import androidx.annotation.NonNull;
+
+/** JMX export of proxy metrics. JVM only: javax.management is not available on Android. */
+public final class MetricsJmx {
+    private MetricsJmx() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Register metrics in platform MBean server, each method exposed by attributes
+     * `{name}.calls`, `{name}.rejected`, `{name}.errors`, `{name}.p50Nanos`, `{name}.p99Nanos`.
+     *
+     * @param metrics metrics of the proxy
+     * @param name    object name, e.g. `com.example:type=Proxy,name=Service`
+     * @return registered object name.
+     * @throws Exception registration failed
+     */
+    @NonNull
+    public static ObjectName register(@NonNull final ProxyMetrics metrics, @NonNull final String name)
+            throws Exception {
+        final ObjectName objectName = new ObjectName(name);
+
+        ManagementFactory.getPlatformMBeanServer().registerMBean(new MetricsMBean(metrics), objectName);
+
+        return objectName;
+    }
+}
@@ -0,0 +1,113 @@
+package com.olku.runtime.jmx;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+
+import com.olku.runtime.ProxyMetrics;
+
+import androidx.annotation.NonNull;
+
+/** Read-only dynamic MBean over {@link ProxyMetrics}, attributes are evaluated on each read. */
+/* package */ final class MetricsMBean implements DynamicMBean {
+    private static final String[] ATTRIBUTES = {"calls", "rejected", "errors", "p50Nanos", "p99Nanos"};
+
+    private final ProxyMetrics metrics;
+    private final String[] names;
+    private final MBeanInfo info;
+
+    /* package */ MetricsMBean(@NonNull final ProxyMetrics metrics) {
+        this.metrics = metrics;
+        this.names = new String[metrics.size()];
+
+        for (int i = 0; i < names.length; i++) {
+            names[i] = metrics.snapshot(i).name;
+        }
+
+        final List<MBeanAttributeInfo> attributes = new ArrayList<>();
+        for (final String name : names) {
+            for (final String attribute : ATTRIBUTES) {
+                attributes.add(new MBeanAttributeInfo(name + "." + attribute, "long",
+                        attribute + " of " + name, true, false, false));
+            }
+        }
+
+        this.info = new MBeanInfo(ProxyMetrics.class.getName(), "AutoProxy metrics",
+                attributes.toArray(new MBeanAttributeInfo[0]), null,
+                new MBeanOperationInfo[0], null);
+    }
+
+    @Override
+    public Object getAttribute(final String attribute) throws AttributeNotFoundException {
+        final int dot = attribute.lastIndexOf('.');
+
+        if (dot > 0) {
+            final String method = attribute.substring(0, dot);
+            final String name = attribute.substring(dot + 1);
+
+            for (int i = 0; i < names.length; i++) {
+                if (!names[i].equals(method)) continue;
+
+                final ProxyMetrics.Snapshot snapshot = metrics.snapshot(i);
+                switch (name) {
+                    case "calls":
+                        return snapshot.calls;
+                    case "rejected":
+                        return snapshot.rejected;
+                    case "errors":
+                        return snapshot.errors;
+                    case "p50Nanos":
+                        return snapshot.percentile(0.5);
+                    case "p99Nanos":
+                        return snapshot.percentile(0.99);
+                    default:
+                        break;
+                }
+            }
+        }
+
+        throw new AttributeNotFoundException(attribute);
+    }
+
+    @Override
+    public AttributeList getAttributes(final String[] attributes) {
+        final AttributeList list = new AttributeList();
+
+        for (final String attribute : attributes) {
+            try {
+                list.add(new Attribute(attribute, getAttribute(attribute)));
+            } catch (final AttributeNotFoundException ignored) {
+                // skip unknown attributes
+            }
+        }
+
+        return list;
+    }
+
+    @Override
+    public void setAttribute(final Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("read-only: " + attribute.getName());
+    }
+
+    @Override
+    public AttributeList setAttributes(final AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(final String actionName, final Object[] params, final String[] signature) {
+        throw new UnsupportedOperationException(actionName);
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        return info;
+    }
+}
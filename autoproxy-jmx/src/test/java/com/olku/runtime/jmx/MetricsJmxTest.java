@@ -0,0 +1,35 @@
+package com.olku.runtime.jmx;
+
+import com.olku.runtime.ProxyMetrics;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.junit.Assert.*;
+
+public class MetricsJmxTest {
+    @Test
+    public void testAttributesReadFromMetrics() throws Exception {
+        final ProxyMetrics metrics = new ProxyMetrics("find", "save");
+        final ObjectName name = MetricsJmx.register(metrics, "com.olku.test:type=Proxy,name=Service");
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        try {
+            metrics.record(1, ProxyMetrics.start());
+            metrics.error(1);
+            metrics.rejected(0);
+
+            assertEquals(0L, server.getAttribute(name, "find.calls"));
+            assertEquals(1L, server.getAttribute(name, "find.rejected"));
+            assertEquals(1L, server.getAttribute(name, "save.calls"));
+            assertEquals(1L, server.getAttribute(name, "save.errors"));
+            assertEquals(10, server.getMBeanInfo(name).getAttributes().length);
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
@@ -0,0 +1,391 @@
+package com.olku.processors;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RequiresApi;
+
+import com.olku.annotations.AutoProxy;
+import com.olku.annotations.Returns;
+import com.olku.runtime.MethodGate;
+import com.olku.runtime.SingleFlight;
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.sun.tools.javac.code.Attribute;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Type;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.type.TypeKind;
+
+import static javax.tools.Diagnostic.Kind.NOTE;
+
+/**
+ * Async variant generator: Async_{Type} interface with methods that return {@link CompletableFuture} and
+ * Proxy_Async_{Type} implementation that executes inner calls on provided executor. Predicate and yield
+ * are evaluated on caller thread and produce already completed futures. AfterCall applied to the result
+ * of the future, other method annotations and proxy modes are reported as ignored. CompletableFuture requires
+ * Android API 24, generated types are marked by {@link RequiresApi}.
+ */
+@SuppressWarnings("WeakerAccess")
+public class AsyncClassGenerator {
+    /**
+     * Prefix of the async interface.
+     */
+    protected static final String ASYNC = "Async_";
+    /**
+     * Name of the executor member.
+     */
+    protected static final String EXECUTOR = "executor";
+    /**
+     * Method annotations of the synchronous proxy that async variant does not apply.
+     */
+    protected static final List<Class<?>> IGNORED = Arrays.asList(
+            AutoProxy.Defer.class, AutoProxy.Coalesce.class, AutoProxy.Batch.class,
+            AutoProxy.Cached.class, AutoProxy.Invalidates.class, AutoProxy.RateLimit.class,
+            AutoProxy.Bulkhead.class, AutoProxy.CircuitBreaker.class, AutoProxy.Timeout.class,
+            AutoProxy.Hedge.class);
+
+    /**
+     * Android API level of {@link CompletableFuture}.
+     */
+    protected static final int FUTURE_API = 24;
+
+    /**
+     * Generator of the synchronous proxy, source of ordinals, predicates and yields.
+     */
+    protected final CommonClassGenerator common;
+
+    /**
+     * Main constructor.
+     *
+     * @param common reference on synchronous proxy generator.
+     */
+    public AsyncClassGenerator(@NonNull final CommonClassGenerator common) {
+        this.common = common;
+    }
+
+    /**
+     * Compose async interface and implementation.
+     *
+     * @param filer target of the generated sources
+     * @throws Exception can fail in depth, allow raising of exception on top
+     */
+    public void compose(@NonNull final Filer filer) throws Exception {
+        final String packageName = common.type.packageName.toString();
+
+        reportIgnoredModes();
+
+        JavaFile.builder(packageName, createInterface().build()).build().writeTo(filer);
+        JavaFile.builder(packageName, createClass().build()).build().writeTo(filer);
+    }
+
+    /**
+     * Resolve type name of the async interface.
+     *
+     * @return class name of the interface
+     */
+    @NonNull
+    protected ClassName asyncType() {
+        return ClassName.get(common.type.packageName.toString(), ASYNC + common.type.flatClassName);
+    }
+
+    @NonNull
+    protected TypeSpec.Builder createInterface() throws Exception {
+        final TypeSpec.Builder builder = TypeSpec.interfaceBuilder(asyncType().simpleName())
+                .addAnnotation(createRequiresApi())
+                .addModifiers(Modifier.PUBLIC);
+
+        for (final Element method : common.type.methods) {
+            final Symbol.MethodSymbol ms = (Symbol.MethodSymbol) method;
+
+            final MethodSpec.Builder spec = MethodSpec.methodBuilder(ms.getSimpleName().toString())
+                    .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                    .returns(toFutureType(ms.getReturnType()));
+
+            CommonClassGenerator.mimicParameters(spec, ms);
+            builder.addMethod(spec.build());
+        }
+
+        return builder;
+    }
+
+    @NonNull
+    protected TypeSpec.Builder createClass() throws Exception {
+        final TypeSpec.Builder builder = TypeSpec.classBuilder(CommonClassGenerator.PROXY + asyncType().simpleName())
+                .addAnnotation(createRequiresApi())
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .addSuperinterface(asyncType());
+
+        builder.addField(FieldSpec.builder(common.superType, "inner", Modifier.PROTECTED, Modifier.FINAL).build());
+        builder.addField(FieldSpec.builder(Executor.class, EXECUTOR, Modifier.PROTECTED, Modifier.FINAL).build());
+
+        if (common.isGated()) {
+            builder.addField(FieldSpec.builder(MethodGate.class, CommonClassGenerator.GATE, Modifier.PROTECTED, Modifier.FINAL)
+                    .initializer("new $T($L.$L, $L)", MethodGate.class,
+                            CommonClassGenerator.METHODS, CommonClassGenerator.METHOD_COUNT,
+                            common.type.annotation.cachePredicate())
+                    .build());
+        }
+
+        for (final Element method : common.type.methods) {
+            final Symbol.MethodSymbol ms = (Symbol.MethodSymbol) method;
+            if (null == CommonClassGenerator.findMethodAnnotation(ms, AutoProxy.SingleFlight.class)) continue;
+
+            builder.addField(FieldSpec.builder(SingleFlight.class, common.toMemberName("flight", ms), Modifier.PROTECTED, Modifier.FINAL)
+                    .initializer("new $T()", SingleFlight.class)
+                    .build());
+        }
+
+        builder.addMethod(createConstructor().build());
+
+        if (common.type.annotation.hooks()) {
+            builder.addSuperinterface(common.hooksType());
+        } else {
+            builder.addMethod(common.createPredicate().build());
+            builder.addMethod(common.createOrdinalPredicate().build());
+        }
+
+        if (common.isGated()) {
+            common.createGateMethods(builder);
+        }
+
+        for (final Element method : common.type.methods) {
+            final Symbol.MethodSymbol ms = (Symbol.MethodSymbol) method;
+
+            builder.addMethod(createMethod(ms).build());
+
+            if (!isDirect(ms)) {
+                builder.addMethod(createYield(ms).build());
+            }
+        }
+
+        // shared with synchronous proxy, same methods and same result types
+        if (common.afterCalls.get()) {
+            builder.addMethod(common.createAfterCall().build());
+            builder.addMethod(common.createOrdinalAfterCall().build());
+
+            for (final TypeKind kind : common.afterCallPrimitives) {
+                builder.addMethod(common.createPrimitiveAfterCall(kind).build());
+            }
+        }
+
+        common.createNamesOfMethods(builder);
+
+        return builder;
+    }
+
+    @NonNull
+    protected AnnotationSpec createRequiresApi() {
+        return AnnotationSpec.builder(RequiresApi.class).addMember("value", "$L", FUTURE_API).build();
+    }
+
+    @NonNull
+    protected MethodSpec.Builder createConstructor() {
+        final ParameterSpec.Builder instance = ParameterSpec.builder(common.superType, "instance", Modifier.FINAL)
+                .addAnnotation(NonNull.class);
+        final ParameterSpec.Builder executor = ParameterSpec.builder(Executor.class, EXECUTOR, Modifier.FINAL)
+                .addAnnotation(NonNull.class);
+
+        return MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(instance.build())
+                .addParameter(executor.build())
+                .addStatement("this.inner = $N", "instance")
+                .addStatement("this.$L = $N", EXECUTOR, EXECUTOR);
+    }
+
+    @NonNull
+    protected MethodSpec.Builder createMethod(@NonNull final Symbol.MethodSymbol ms) throws Exception {
+        final String methodName = ms.getSimpleName().toString();
+        final Type returnType = ms.getReturnType();
+        final boolean hasReturn = returnType.getKind() != TypeKind.VOID;
+        final TypeName futureType = toFutureType(returnType);
+
+        final MethodSpec.Builder builder = MethodSpec.methodBuilder(methodName)
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .returns(futureType);
+
+        final StringBuilder arguments = CommonClassGenerator.mimicParameters(builder, ms);
+
+        reportIgnored(ms);
+
+        // predicate and yield on caller thread, no thread hop for canceled calls
+        common.createPredicateCheck(builder, ms, arguments);
+
+        if (isDirect(ms)) {
+            builder.addComment("direct call, ignore predicate result");
+        } else {
+            builder.addStatement("final $T yielded = new $T<>()", futureType, CompletableFuture.class);
+            builder.beginControlFlow("try");
+            if (hasReturn) {
+                builder.addStatement("yielded.complete($L())", common.toMemberName("yield", ms));
+            } else {
+                builder.addStatement("$L()", common.toMemberName("yield", ms));
+                builder.addStatement("yielded.complete(null)");
+            }
+            builder.nextControlFlow("catch (final $T error)", Throwable.class);
+            builder.addStatement("yielded.completeExceptionally(error)");
+            builder.endControlFlow();
+            builder.addStatement("return yielded");
+        }
+
+        builder.endControlFlow();
+
+        // inner call on executor, checked exceptions delivered as completion exceptions
+        final String call = (hasReturn ? "return " : "") + "this.inner.$N($L)";
+        final String async = hasReturn ? "supplyAsync" : "runAsync";
+
+        // concurrent callers with equal arguments share one future
+        final boolean shared = hasReturn
+                && null != CommonClassGenerator.findMethodAnnotation(ms, AutoProxy.SingleFlight.class);
+        final CodeBlock start = shared
+                ? CodeBlock.of("return this.$L.async($L, () -> ", common.toMemberName("flight", ms), common.createCacheKey(ms, arguments))
+                : CodeBlock.of("return ");
+        final String end = (shared ? ")" : "") + createAfterCallPart(ms);
+
+        if (ms.getThrownTypes().isEmpty()) {
+            builder.addStatement("$L$T.$L(() -> " + call.replace("return ", "") + ", this.$L)" + end,
+                    start, CompletableFuture.class, async, methodName, arguments, EXECUTOR);
+        } else {
+            builder.addCode("$L$T.$L(() -> {\n", start, CompletableFuture.class, async);
+            builder.addCode("$>");
+            builder.beginControlFlow("try");
+            builder.addStatement(call, methodName, arguments);
+            builder.nextControlFlow("catch (final $T error)", Exception.class);
+            builder.addStatement("throw new $T(error)", CompletionException.class);
+            builder.endControlFlow();
+            builder.addCode("$<");
+            builder.addStatement("}, this.$L)" + end, EXECUTOR);
+        }
+
+        return builder;
+    }
+
+    /**
+     * Compose post-processing of the future result by afterCall, yielded futures are not post-processed.
+     *
+     * @param ms reference on the proxied method
+     * @return code appended to the future or empty string
+     * @throws Exception can fail during annotation extraction
+     */
+    @NonNull
+    protected String createAfterCallPart(@NonNull final Symbol.MethodSymbol ms) throws Exception {
+        if (null == CommonClassGenerator.findAfterMethodAnnotation(ms)) return "";
+
+        final Type returnType = ms.getReturnType();
+        final String id = CommonClassGenerator.METHODS + "." + common.ordinals.get(ms);
+        final String name = CommonClassGenerator.METHODS + "." + common.toConstantName(ms.getSimpleName().toString());
+
+        if (returnType.getKind() == TypeKind.VOID) {
+            common.afterCalls.set(true);
+            return ".thenRun(() -> " + CommonClassGenerator.AFTERCALL + "(" + id + ", " + name + ", null))";
+        } else if (returnType.isPrimitive()) {
+            common.afterCalls.set(true);
+            common.afterCallPrimitives.add(returnType.getKind());
+            return ".thenApply(result -> " + common.toAfterCallName(returnType.getKind()) + "(" + id + ", " + name + ", result))";
+        }
+
+        common.afterCalls.set(true);
+        return ".thenApply(result -> " + CommonClassGenerator.AFTERCALL + "(" + id + ", " + name + ", result))";
+    }
+
+    /**
+     * Report method annotations that async variant does not apply. Wrap synchronous proxy instance as inner
+     * to get them applied on executor thread.
+     *
+     * @param ms reference on the proxied method
+     * @throws Exception can fail during annotation extraction
+     */
+    protected void reportIgnored(@NonNull final Symbol.MethodSymbol ms) throws Exception {
+        for (final Class<?> annotation : IGNORED) {
+            if (null == CommonClassGenerator.findMethodAnnotation(ms, annotation)) continue;
+
+            common.type.logger.printMessage(NOTE, "@AutoProxy.async ignores @AutoProxy." +
+                    annotation.getSimpleName() + " of " + ms.getSimpleName() +
+                    ", pass Proxy_ instance as inner to apply it", ms);
+        }
+    }
+
+    /**
+     * Report proxy modes that async variant does not apply. Wrap synchronous proxy instance as inner to get
+     * them applied on executor thread.
+     */
+    protected void reportIgnoredModes() {
+        final AutoProxy annotation = common.type.annotation;
+        final String[] modes = {
+                annotation.metrics() ? "metrics" : null,
+                annotation.flightRecorder() ? "flightRecorder" : null,
+                annotation.actor() ? "actor" : null,
+                annotation.lazy() ? "lazy" : null,
+                annotation.weak() ? "weak" : null,
+                annotation.rebindable() ? "rebindable" : null};
+
+        for (final String mode : modes) {
+            if (null == mode) continue;
+
+            common.type.logger.printMessage(NOTE, "@AutoProxy.async ignores " + mode + " of " +
+                    common.type.flatClassName + ", pass Proxy_ instance as inner to apply it", common.type.element);
+        }
+    }
+
+    /**
+     * Compose yield value of the method as a separate method. Result of it wrapped into completed future.
+     *
+     * @param ms reference on the proxied method
+     * @return instance of the method builder.
+     * @throws Exception can fail during yield extraction
+     */
+    @NonNull
+    protected MethodSpec.Builder createYield(@NonNull final Symbol.MethodSymbol ms) throws Exception {
+        final Type returnType = ms.getReturnType();
+        final Attribute.Compound yield = CommonClassGenerator.findYieldMethodAnnotation(ms);
+
+        final MethodSpec.Builder builder = MethodSpec.methodBuilder(common.toMemberName("yield", ms))
+                .addModifiers(Modifier.PRIVATE)
+                .returns(TypeName.get(returnType));
+
+        if (returnType.getKind() != TypeKind.VOID || null != yield) {
+            if (null != yield) builder.addComment("" + yield);
+            common.createYieldPart(builder, returnType, yield);
+        }
+
+        return builder;
+    }
+
+    /**
+     * Is method configured for direct call independent to predicate result.
+     *
+     * @param ms reference on the proxied method
+     * @return TRUE - direct call, otherwise FALSE.
+     * @throws Exception can fail during yield extraction
+     */
+    protected boolean isDirect(@NonNull final Symbol.MethodSymbol ms) throws Exception {
+        final Attribute.Compound yield = CommonClassGenerator.findYieldMethodAnnotation(ms);
+
+        return Returns.DIRECT.equals(common.extractYield(yield).value());
+    }
+
+    @NonNull
+    protected static TypeName toFutureType(@NonNull final Type returnType) {
+        final TypeName result = returnType.getKind() == TypeKind.VOID
+                ? ClassName.get(Void.class)
+                : TypeName.get(returnType).box();
+
+        return ParameterizedTypeName.get(ClassName.get(CompletableFuture.class), result);
+    }
+}
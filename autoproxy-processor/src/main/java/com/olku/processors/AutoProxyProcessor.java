@@ -85,9 +85,9 @@ public class AutoProxyProcessor extends AbstractProcessor {
 
                 final AutoProxyClassGenerator generator = tp.generator();
 
-                if (!generator.compose(filer)) {
-//                    logger.printMessage(ERROR, generator.getErrors());
-                    logger.printMessage(NOTE, generator.getErrors());
+                // rejected declarations are already reported against the offending element
+                if (!generator.compose(filer) && !generator.getErrors().isEmpty()) {
+                    logger.printMessage(ERROR, generator.getErrors(), element);
                 }
             } catch (Throwable e) {
                 e.printStackTrace(new PrintWriter(errors));
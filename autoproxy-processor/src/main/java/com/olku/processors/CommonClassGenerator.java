@@ -13,15 +13,37 @@ import com.olku.generators.RetBoolGenerator;
 import com.olku.generators.RetNumberGenerator;
 import com.olku.generators.ReturnsGenerator;
 import com.olku.generators.ReturnsPoet;
+import com.olku.runtime.Batcher;
+import com.olku.runtime.Bulkhead;
+import com.olku.runtime.CircuitBreaker;
+import com.olku.runtime.Clock;
+import com.olku.runtime.DeferredCalls;
+import com.olku.runtime.Hedge;
+import com.olku.runtime.Coalescer;
+import com.olku.runtime.Deadline;
+import com.olku.runtime.LongResultCache;
+import com.olku.runtime.Mailbox;
+import com.olku.runtime.MethodGate;
+import com.olku.runtime.ObjectResultCache;
+import com.olku.runtime.ProxyMetrics;
+import com.olku.runtime.RateLimiter;
+import com.olku.runtime.ResultCache;
+import com.olku.runtime.Scheduler;
+import com.olku.runtime.Schedulers;
+import com.olku.runtime.SingleFlight;
+import com.olku.runtime.WeakInstance;
 import com.squareup.javapoet.AnnotationSpec;
 import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
 import com.squareup.javapoet.TypeVariableName;
+import com.squareup.javapoet.WildcardTypeName;
 import com.sun.tools.javac.code.Attribute;
 import com.sun.tools.javac.code.Symbol;
 import com.sun.tools.javac.code.Type;
@@ -29,15 +51,27 @@ import com.sun.tools.javac.code.Type;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Supplier;
 
 import javax.annotation.processing.Filer;
 import javax.lang.model.element.Element;
@@ -49,6 +83,7 @@ import javax.lang.model.type.TypeKind;
 
 import sun.reflect.annotation.AnnotationParser;
 
+import static javax.tools.Diagnostic.Kind.ERROR;
 import static javax.tools.Diagnostic.Kind.NOTE;
 
 /**
@@ -58,6 +93,10 @@ import static javax.tools.Diagnostic.Kind.NOTE;
 public class CommonClassGenerator implements AutoProxyClassGenerator {
     public static boolean IS_DEBUG = AutoProxyProcessor.IS_DEBUG;
 
+    /**
+     * Prefix of the generated proxy class.
+     */
+    protected static final String PROXY = "Proxy_";
     /**
      * Pre-call / predicate method name.
      */
@@ -67,6 +106,91 @@ public class CommonClassGenerator implements AutoProxyClassGenerator {
      * Annotation type name that is used for constants definition.
      */
     protected static final String METHODS = "Methods";
+    /**
+     * Prefix of the typed hooks companion interface.
+     */
+    protected static final String HOOKS = "Hooks_";
+    /**
+     * Prefix of the method ordinal constants.
+     */
+    protected static final String ORDINAL = "ID_";
+    /**
+     * Name of the constant with total number of method ordinals.
+     */
+    protected static final String METHOD_COUNT = "METHOD_COUNT";
+    /**
+     * Name of the methods gate member.
+     */
+    protected static final String GATE = "gate";
+    /**
+     * Name of the deferred calls member.
+     */
+    protected static final String DEFERRED = "deferred";
+    /**
+     * Name of the scheduler provider method.
+     */
+    protected static final String SCHEDULER = "scheduler";
+    /**
+     * Name of the actor mailbox member.
+     */
+    protected static final String MAILBOX = "mailbox";
+    /**
+     * Name of the method that closes the actor mailbox.
+     */
+    protected static final String CLOSE_MAILBOX = "closeMailbox";
+    /**
+     * Name of the clock provider method.
+     */
+    protected static final String CLOCK = "clock";
+    /**
+     * Name of the circuit breakers listener.
+     */
+    protected static final String CIRCUIT_LISTENER = "onCircuitStateChanged";
+    /**
+     * Name of the executor provider of calls with timeout.
+     */
+    protected static final String TIMEOUT_EXECUTOR = "timeoutExecutor";
+    /**
+     * Name of the secondary instance member of hedged calls.
+     */
+    protected static final String SECONDARY = "secondary";
+    /**
+     * Name of the executor provider of hedged calls.
+     */
+    protected static final String HEDGE_EXECUTOR = "hedgeExecutor";
+    /**
+     * Name of the metrics member.
+     */
+    protected static final String METRICS = "metrics";
+    /**
+     * Name of the nested flight recorder event type.
+     */
+    protected static final String CALL_EVENT = "CallEvent";
+    /**
+     * Name of the inner instance updater.
+     */
+    protected static final String INNER_UPDATER = "INNER";
+    /**
+     * Name of the lazy inner instance supplier member.
+     */
+    protected static final String SUPPLIER = "supplier";
+    /**
+     * Name of the lazy inner instance creation monitor.
+     */
+    protected static final String LAZY_LOCK = "lazyLock";
+    /**
+     * Name of the callback on collection of weak inner instance.
+     */
+    protected static final String ON_COLLECTED = "onInnerCollected";
+    /**
+     * Names of locals, lambda and catch parameters declared by generated method bodies. Parameter of the
+     * proxied method with such name is renamed in generated code.
+     */
+    protected static final Set<String> RESERVED = new HashSet<>(Arrays.asList(
+            "key", "epoch", "cached", "result",
+            "inner", "current", "gateState", "decision", "startedAt", "admitted", "started", "failed",
+            "event", "outcome", "error", "yielded",
+            "delegate", "delegates", "results", "i", "len", "args", "ask", "called", "value", "index", "failure"));
 
     /**
      * Data type for processing.
@@ -84,10 +208,18 @@ public class CommonClassGenerator implements AutoProxyClassGenerator {
      * Is any 'after calls' annotations found.
      */
     protected final AtomicBoolean afterCalls = new AtomicBoolean();
+    /**
+     * Primitive return types of methods with 'after call' annotation.
+     */
+    protected final Set<TypeKind> afterCallPrimitives = EnumSet.noneOf(TypeKind.class);
     /**
      * List of method names.
      */
     protected final Set<String> knownMethods = new TreeSet(String.CASE_INSENSITIVE_ORDER);
+    /**
+     * Dense ordinal constant name per each method overload. Index in map is the ordinal value.
+     */
+    protected final Map<Symbol.MethodSymbol, String> ordinals = new LinkedHashMap<>();
 
     //region Constructor
 
@@ -111,13 +243,138 @@ public class CommonClassGenerator implements AutoProxyClassGenerator {
     @Override
     public boolean compose(@NonNull final Filer filer) {
         try {
+            // dense ordinals for all methods overloads
+            createOrdinals();
+
             // compose class
             final FieldSpec[] members = createMembers();
             final TypeSpec.Builder classSpec = createClass(members);
 
             // constructor and predicate
             classSpec.addMethod(createConstructor().build());
-            classSpec.addMethod(createPredicate().build());
+
+            if (type.annotation.rebindable()) {
+                classSpec.addMethod(createUnboundConstructor().build());
+            }
+
+            if (type.annotation.weak()) {
+                if (type.annotation.rebindable() || type.annotation.lazy()) {
+                    final String message = "Weak inner instance cannot be combined with rebindable or lazy: " + type.elementType;
+                    throw reject(type.element, message);
+                }
+
+                classSpec.addMethod(MethodSpec.methodBuilder(ON_COLLECTED)
+                        .addModifiers(Modifier.PROTECTED)
+                        .addComment("override to release resources bound to collected instance")
+                        .build());
+            }
+
+            if (type.annotation.lazy()) {
+                if (type.annotation.rebindable()) {
+                    final String message = "Lazy inner instance cannot be combined with rebindable: " + type.elementType;
+                    throw reject(type.element, message);
+                }
+
+                classSpec.addMethod(createLazyConstructor().build());
+                createLazyMethods(classSpec);
+            }
+
+            if (hasMethodAnnotation(AutoProxy.Hedge.class)) {
+                classSpec.addMethod(createHedgeConstructor().build());
+            }
+
+            if (type.annotation.actor()) {
+                classSpec.addMethod(createActorConstructor().build());
+                classSpec.addMethod(MethodSpec.methodBuilder(MAILBOX)
+                        .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                        .addAnnotation(NonNull.class)
+                        .returns(Mailbox.class)
+                        .addStatement("return this.$L", MAILBOX)
+                        .build());
+
+                // closed mailbox rejects new calls
+                classSpec.addMethod(MethodSpec.methodBuilder(CLOSE_MAILBOX)
+                        .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                        .addStatement("this.$L.close()", MAILBOX)
+                        .build());
+            }
+
+            if (type.annotation.rebindable()) {
+                createRebindMethods(classSpec);
+            }
+
+            if (type.annotation.hooks()) {
+                classSpec.addSuperinterface(hooksType());
+            } else {
+                classSpec.addMethod(createPredicate().build());
+                classSpec.addMethod(createOrdinalPredicate().build());
+            }
+
+            // gate API
+            if (isGated()) {
+                createGateMethods(classSpec);
+            }
+
+            // deferred calls API
+            if (hasMethodAnnotation(AutoProxy.Defer.class)) {
+                createDeferredMethods(classSpec);
+            }
+
+            // scheduler of the delayed calls
+            if (hasMethodAnnotation(AutoProxy.Coalesce.class) || hasMethodAnnotation(AutoProxy.Batch.class)) {
+                classSpec.addMethod(createScheduler().build());
+            }
+
+            // batches API
+            if (hasMethodAnnotation(AutoProxy.Batch.class)) {
+                classSpec.addMethod(createFlushBatches().build());
+            }
+
+            // results cache API
+            if (hasMethodAnnotation(AutoProxy.Cached.class)) {
+                createCacheMethods(classSpec);
+            }
+
+            // time source of caches, rate limits and circuit breakers
+            if (hasMethodAnnotation(AutoProxy.Cached.class) || hasMethodAnnotation(AutoProxy.RateLimit.class)
+                    || hasMethodAnnotation(AutoProxy.CircuitBreaker.class)) {
+                classSpec.addMethod(createClock().build());
+            }
+
+            // executor of calls with deadline
+            if (hasMethodAnnotation(AutoProxy.Timeout.class)) {
+                classSpec.addMethod(MethodSpec.methodBuilder(TIMEOUT_EXECUTOR)
+                        .addModifiers(Modifier.PROTECTED)
+                        .addAnnotation(NonNull.class)
+                        .returns(Executor.class)
+                        .addStatement("return $T.shared()", Deadline.class)
+                        .build());
+            }
+
+            // executor of hedged calls
+            if (hasMethodAnnotation(AutoProxy.Hedge.class)) {
+                classSpec.addMethod(MethodSpec.methodBuilder(HEDGE_EXECUTOR)
+                        .addModifiers(Modifier.PROTECTED)
+                        .addAnnotation(NonNull.class)
+                        .returns(Executor.class)
+                        .addStatement("return $T.shared()", Deadline.class)
+                        .build());
+            }
+
+            // circuit breakers state changes
+            if (hasMethodAnnotation(AutoProxy.CircuitBreaker.class)) {
+                classSpec.addMethod(createCircuitListener().build());
+            }
+
+            // metrics snapshots
+            if (type.annotation.metrics()) {
+                classSpec.addMethod(MethodSpec.methodBuilder(METRICS)
+                        .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                        .addAnnotation(NonNull.class)
+                        .returns(ProxyMetrics.class)
+                        .addStatement("return this.$L", METRICS)
+                        .build());
+            }
 
             // auto-generate method proxy calls
             createMethods(classSpec);
@@ -125,14 +382,58 @@ public class CommonClassGenerator implements AutoProxyClassGenerator {
             // if any after call annotation found in class/methods
             if (afterCalls.get()) {
                 classSpec.addMethod(createAfterCall().build());
+                classSpec.addMethod(createOrdinalAfterCall().build());
+
+                for (final TypeKind kind : afterCallPrimitives) {
+                    classSpec.addMethod(createPrimitiveAfterCall(kind).build());
+                }
             }
 
             createNamesOfMethods(classSpec);
 
+            // flight recorder event type
+            if (type.annotation.flightRecorder()) {
+                classSpec.addType(createCallEvent().build());
+            }
+
             // save class to disk
             final JavaFile javaFile = JavaFile.builder(type.packageName.toString(), classSpec.build()).build();
             javaFile.writeTo(filer);
 
+            // companion interface with typed predicates
+            if (type.annotation.hooks()) {
+                final TypeSpec hooksSpec = createHooks().build();
+                JavaFile.builder(type.packageName.toString(), hooksSpec).build().writeTo(filer);
+            }
+
+            // async variant of the proxy
+            if (type.annotation.async()) {
+                new AsyncClassGenerator(this).compose(filer);
+            }
+
+            // broadcast to many delegates
+            if (type.annotation.multicast()) {
+                new MulticastClassGenerator(this).compose(filer);
+            }
+
+            // parallel call of many delegates
+            if (type.annotation.scatterGather()) {
+                new ScatterGatherClassGenerator(this).compose(filer);
+            }
+
+            // dispatch to one delegate of the pool
+            if (type.annotation.pool()) {
+                new PoolClassGenerator(this).compose(filer);
+            }
+
+            // dispatch by shard key
+            if (type.annotation.sharded()) {
+                new ShardedClassGenerator(this).compose(filer);
+            }
+
+        } catch (final Rejection ignored) {
+            // already reported as compilation error
+            return false;
         } catch (final Throwable ignored) {
             ignored.printStackTrace(new PrintWriter(errors));
             return false;
@@ -141,6 +442,29 @@ public class CommonClassGenerator implements AutoProxyClassGenerator {
         return true;
     }
 
+    /**
+     * Report invalid declaration as compilation error against the offending element.
+     *
+     * @param element offending element: type or method
+     * @param message description of the problem
+     * @return exception that stops code generation of the type
+     */
+    @NonNull
+    protected Rejection reject(@NonNull final Element element, @NonNull final String message) {
+        type.logger.printMessage(ERROR, message, element);
+
+        return new Rejection(message);
+    }
+
+    /** Invalid declaration, reported as compilation error by {@link #reject(Element, String)}. */
+    protected static final class Rejection extends UnsupportedOperationException {
+        private static final long serialVersionUID = 1L;
+
+        Rejection(@NonNull final String message) {
+            super(message);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -153,190 +477,1498 @@ public class CommonClassGenerator implements AutoProxyClassGenerator {
 
     //region Implementation
     @NonNull
-    protected FieldSpec[] createMembers() {
+    protected FieldSpec[] createMembers() throws Exception {
         final List<FieldSpec> fields = new ArrayList<>();
 
         final TypeName typeOfField = TypeName.get(type.element.asType());
-        final FieldSpec.Builder builder = FieldSpec.builder(typeOfField, "inner", Modifier.PROTECTED, Modifier.FINAL);
-        fields.add(builder.build());
+
+        if (type.annotation.rebindable()) {
+            // published via field updater, NULL - unbound proxy
+            fields.add(FieldSpec.builder(typeOfField, "inner", Modifier.PROTECTED, Modifier.VOLATILE).build());
+
+            final ClassName rawType = ClassName.get((TypeElement) type.element);
+            final ClassName proxyType = ClassName.get(type.packageName.toString(), PROXY + type.flatClassName);
+            fields.add(FieldSpec.builder(ParameterizedTypeName.get(ClassName.get(AtomicReferenceFieldUpdater.class), proxyType, rawType),
+                    INNER_UPDATER, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("$T.newUpdater($T.class, $T.class, $S)", AtomicReferenceFieldUpdater.class,
+                            proxyType, rawType, "inner")
+                    .build());
+        } else if (type.annotation.weak()) {
+            // cleared reference - collected instance
+            fields.add(FieldSpec.builder(ParameterizedTypeName.get(ClassName.get(WeakInstance.class), typeOfField),
+                    "inner", Modifier.PROTECTED, Modifier.FINAL).build());
+        } else if (type.annotation.lazy()) {
+            // published by double-checked initialization, NULL - not created yet
+            fields.add(FieldSpec.builder(typeOfField, "inner", Modifier.PROTECTED, Modifier.VOLATILE).build());
+            fields.add(FieldSpec.builder(ParameterizedTypeName.get(ClassName.get(Supplier.class), typeOfField),
+                    SUPPLIER, Modifier.PROTECTED, Modifier.FINAL).build());
+            // own monitor, caller provided supplier can be locked by other code
+            fields.add(FieldSpec.builder(Object.class, LAZY_LOCK, Modifier.PRIVATE, Modifier.FINAL)
+                    .initializer("new $T()", Object.class).build());
+        } else {
+            final FieldSpec.Builder builder = FieldSpec.builder(typeOfField, "inner", Modifier.PROTECTED, Modifier.FINAL);
+            fields.add(builder.build());
+        }
+
+        if (type.annotation.actor()) {
+            fields.add(FieldSpec.builder(Mailbox.class, MAILBOX, Modifier.PROTECTED, Modifier.FINAL).build());
+        }
+
+        if (hasMethodAnnotation(AutoProxy.Hedge.class)) {
+            fields.add(FieldSpec.builder(typeOfField, SECONDARY, Modifier.PROTECTED, Modifier.FINAL)
+                    .addAnnotation(Nullable.class).build());
+        }
+
+        if (type.annotation.metrics()) {
+            final List<CodeBlock> names = new ArrayList<>();
+            for (final Symbol.MethodSymbol ms : ordinals.keySet()) {
+                names.add(CodeBlock.of("$S", toMetricName(ms)));
+            }
+
+            fields.add(FieldSpec.builder(ProxyMetrics.class, METRICS, Modifier.PROTECTED, Modifier.FINAL)
+                    .initializer("new $T($L)", ProxyMetrics.class, CodeBlock.join(names, ", "))
+                    .build());
+        }
+
+        if (isGated()) {
+            fields.add(createGateMember());
+        }
+
+        if (hasMethodAnnotation(AutoProxy.Defer.class)) {
+            fields.add(FieldSpec.builder(DeferredCalls.class, DEFERRED, Modifier.PROTECTED, Modifier.FINAL)
+                    .initializer("new $T($L.$L)", DeferredCalls.class, METHODS, METHOD_COUNT)
+                    .build());
+        }
+
+        for (final Element method : type.methods) {
+            final Symbol.MethodSymbol ms = (Symbol.MethodSymbol) method;
+            final Attribute.Compound coalesce = findMethodAnnotation(ms, AutoProxy.Coalesce.class);
+            if (null == coalesce) continue;
+
+            final AutoProxy.Coalesce annotation = extractAnnotation(AutoProxy.Coalesce.class, coalesce);
+            fields.add(FieldSpec.builder(Coalescer.class, toMemberName("coalesce", ms), Modifier.PROTECTED, Modifier.FINAL)
+                    .initializer("new $T($LL)", Coalescer.class, annotation.windowMs())
+                    .build());
+        }
+
+        for (final Element method : type.methods) {
+            final Symbol.MethodSymbol ms = (Symbol.MethodSymbol) method;
+            final Attribute.Compound batch = findMethodAnnotation(ms, AutoProxy.Batch.class);
+            if (null == batch) continue;
+
+            // initialized in constructor, lambda of the batcher reads inner instance
+            final TypeName item = TypeName.get(ms.getParameters().get(0).asType()).box();
+            fields.add(FieldSpec.builder(ParameterizedTypeName.get(ClassName.get(Batcher.class), item),
+                    toMemberName("batch", ms), Modifier.PROTECTED, Modifier.FINAL).build());
+        }
+
+        for (final Element method : type.methods) {
+            final Symbol.MethodSymbol ms = (Symbol.MethodSymbol) method;
+            final Attribute.Compound rateLimit = findMethodAnnotation(ms, AutoProxy.RateLimit.class);
+            if (null == rateLimit) continue;
+
+            final AutoProxy.RateLimit annotation = extractAnnotation(AutoProxy.RateLimit.class, rateLimit);
+            if (!(annotation.permitsPerSecond() > 0) || annotation.burst() < 1) {
+                final String message = "@AutoProxy.RateLimit expects positive rate and burst: " + ms;
+                throw reject(ms, message);
+            }
+
+            fields.add(FieldSpec.builder(RateLimiter.class, toMemberName("rateLimit", ms), Modifier.PROTECTED, Modifier.FINAL)
+                    .initializer("new $T($L, $L)", RateLimiter.class, annotation.permitsPerSecond(), annotation.burst())
+                    .build());
+        }
+
+        for (final Element method : type.methods) {
+            final Symbol.MethodSymbol ms = (Symbol.MethodSymbol) method;
+            final Attribute.Compound bulkhead = findBulkheadAnnotation(ms);
+            if (null == bulkhead) continue;
+
+            final AutoProxy.Bulkhead annotation = extractAnnotation(AutoProxy.Bulkhead.class, bulkhead);
+            fields.add(FieldSpec.builder(Bulkhead.class, toMemberName("bulkhead", ms), Modifier.PROTECTED, Modifier.FINAL)
+                    .initializer("new $T($L)", Bulkhead.class, annotation.maxConcurrent())
+                    .build());
+        }
+
+        for (final Element method : type.methods) {
+            final Symbol.MethodSymbol ms = (Symbol.MethodSymbol) method;
+            if (null == findMethodAnnotation(ms, AutoProxy.SingleFlight.class)) continue;
+
+            fields.add(FieldSpec.builder(SingleFlight.class, toMemberName("flight", ms), Modifier.PROTECTED, Modifier.FINAL)
+                    .initializer("new $T()", SingleFlight.class)
+                    .build());
+        }
+
+        for (final Element method : type.methods) {
+            final Symbol.MethodSymbol ms = (Symbol.MethodSymbol) method;
+            final Attribute.Compound hedge = findMethodAnnotation(ms, AutoProxy.Hedge.class);
+            if (null == hedge) continue;
+
+            final AutoProxy.Hedge annotation = extractAnnotation(AutoProxy.Hedge.class, hedge);
+            fields.add(FieldSpec.builder(Hedge.class, toMemberName("hedge", ms), Modifier.PROTECTED, Modifier.FINAL)
+                    .initializer("new $T($LL)", Hedge.class, annotation.afterMs())
+                    .build());
+        }
+
+        for (final Element method : type.methods) {
+            final Symbol.MethodSymbol ms = (Symbol.MethodSymbol) method;
+            final Attribute.Compound breaker = findMethodAnnotation(ms, AutoProxy.CircuitBreaker.class);
+            if (null == breaker) continue;
+
+            final AutoProxy.CircuitBreaker annotation = extractAnnotation(AutoProxy.CircuitBreaker.class, breaker);
+            if (!(annotation.failureRatio() > 0 && annotation.failureRatio() <= 1) || annotation.window() < 1
+                    || annotation.openMs() < 0 || annotation.slowMs() < 0) {
+                final String message = "@AutoProxy.CircuitBreaker expects ratio in (0..1], positive window and times: " + ms;
+                throw reject(ms, message);
+            }
+
+            fields.add(FieldSpec.builder(CircuitBreaker.class, toMemberName("breaker", ms), Modifier.PROTECTED, Modifier.FINAL)
+                    .initializer("new $T($L, $L, $LL, $LL, (from, to) -> $L($L.$L, $L.$L, from, to))", CircuitBreaker.class,
+                            annotation.failureRatio(), annotation.window(), annotation.openMs(), annotation.slowMs(),
+                            CIRCUIT_LISTENER, METHODS, ordinals.get(ms), METHODS, toConstantName(ms.getSimpleName().toString()))
+                    .build());
+        }
+
+        for (final Element method : type.methods) {
+            final Symbol.MethodSymbol ms = (Symbol.MethodSymbol) method;
+            final Attribute.Compound cached = findMethodAnnotation(ms, AutoProxy.Cached.class);
+            if (null == cached) continue;
+
+            // arrays are compared by identity, such keys never hit
+            for (final Symbol.VarSymbol param : ms.getParameters()) {
+                if (param.asType().getKind() != TypeKind.ARRAY) continue;
+
+                final String message = "@AutoProxy.Cached does not support array and varargs parameters: " + ms;
+                throw reject(ms, message);
+            }
+
+            final AutoProxy.Cached annotation = extractAnnotation(AutoProxy.Cached.class, cached);
+            final Class<?> cacheType = isPrimitiveKey(ms) ? LongResultCache.class : ObjectResultCache.class;
+            fields.add(FieldSpec.builder(cacheType, toMemberName("cache", ms), Modifier.PROTECTED, Modifier.FINAL)
+                    .initializer("new $T($L, $LL)", cacheType, annotation.maxEntries(), annotation.ttlMs())
+                    .build());
+        }
 
         return fields.toArray(new FieldSpec[0]);
     }
 
     @NonNull
     protected TypeSpec.Builder createClass(@NonNull final FieldSpec... members) {
-        final TypeSpec.Builder builder = TypeSpec.classBuilder("Proxy_" + type.flatClassName)
+        final TypeSpec.Builder builder = TypeSpec.classBuilder(PROXY + type.flatClassName)
                 .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT);
 
         // TODO: mimic annotations of the super type
 
+        inheritSuperType(builder);
+
+        for (final FieldSpec member : members) {
+            builder.addField(member);
+        }
+
+        return builder;
+    }
+
+    /**
+     * Attach proxied type to generated class: interface is implemented, abstract class is extended.
+     *
+     * @param builder instance of class specification builder
+     * @return same builder.
+     */
+    @NonNull
+    protected TypeSpec.Builder inheritSuperType(@NonNull final TypeSpec.Builder builder) {
         if (ElementKind.INTERFACE == type.element.getKind()) {
             builder.addSuperinterface(superType);
         } else if (ElementKind.CLASS == type.element.getKind()) {
             builder.superclass(superType);
         } else {
             final String message = "Unsupported data type: " + type.element.getKind() + ", " + type.elementType;
-            errors.write(message + "\n");
+            throw reject(type.element, message);
+        }
+
+        return builder;
+    }
+
+    @NonNull
+    protected MethodSpec.Builder createConstructor() throws Exception {
+        final ParameterSpec.Builder param = ParameterSpec.builder(superType, "instance", Modifier.FINAL)
+                .addAnnotation(NonNull.class);
+
+        final MethodSpec.Builder builder = MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(param.build())
+                .addStatement("this.inner = $L", innerOf("instance"));
+
+        if (type.annotation.actor()) {
+            builder.addStatement("this.$L = new $T()", MAILBOX, Mailbox.class);
+        }
+
+        if (hasMethodAnnotation(AutoProxy.Hedge.class)) {
+            builder.addStatement("this.$L = null", SECONDARY);
+        }
+
+        if (type.annotation.lazy()) {
+            builder.addStatement("this.$L = null", SUPPLIER);
+        }
+
+        createBatchers(builder);
+
+        return builder;
+    }
+
+    /**
+     * Compose value of the inner member from constructor parameter.
+     *
+     * @param instance name of the parameter
+     * @return instance itself or weak reference on it.
+     */
+    @NonNull
+    protected CodeBlock innerOf(@NonNull final String instance) {
+        if (!type.annotation.weak()) return CodeBlock.of("$N", instance);
+
+        return CodeBlock.of("new $T<>($N, this::$L)", WeakInstance.class, instance, ON_COLLECTED);
+    }
+
+    /**
+     * Create constructor with supplier of the inner instance, instance created on first allowed call.
+     *
+     * @return instance of the constructor builder.
+     * @throws Exception can fail during annotations extraction
+     */
+    @NonNull
+    protected MethodSpec.Builder createLazyConstructor() throws Exception {
+        final MethodSpec.Builder builder = MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(ParameterSpec.builder(ParameterizedTypeName.get(ClassName.get(Supplier.class), superType),
+                        SUPPLIER, Modifier.FINAL).addAnnotation(NonNull.class).build())
+                .addStatement("this.$L = $N", SUPPLIER, SUPPLIER);
+
+        if (type.annotation.actor()) {
+            builder.addStatement("this.$L = new $T()", MAILBOX, Mailbox.class);
+        }
+
+        if (hasMethodAnnotation(AutoProxy.Hedge.class)) {
+            builder.addStatement("this.$L = null", SECONDARY);
+        }
+
+        createBatchers(builder);
+
+        return builder;
+    }
+
+    /**
+     * Create accessors of the lazy inner instance. Lock taken only by calls that find instance not created,
+     * created instance is read by one volatile read. NULL from supplier raises NPE without publishing it.
+     *
+     * @param classSpec instance of class specification builder
+     */
+    protected void createLazyMethods(@NonNull final TypeSpec.Builder classSpec) {
+        classSpec.addMethod(MethodSpec.methodBuilder("inner")
+                .addModifiers(Modifier.PROTECTED, Modifier.FINAL)
+                .addAnnotation(NonNull.class)
+                .returns(superType)
+                .addStatement("$T current = this.inner", superType)
+                .beginControlFlow("if (null == current)")
+                .beginControlFlow("synchronized (this.$L)", LAZY_LOCK)
+                .addStatement("current = this.inner")
+                .addStatement("if (null == current) this.inner = current = $T.requireNonNull(this.$L.get(), $S)",
+                        Objects.class, SUPPLIER, "supplier returned null")
+                .endControlFlow()
+                .endControlFlow()
+                .addStatement("return current")
+                .build());
+
+        classSpec.addMethod(MethodSpec.methodBuilder("isInitialized")
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .returns(boolean.class)
+                .addStatement("return null != this.inner")
+                .build());
+    }
+
+    /**
+     * Create constructor with secondary instance of the hedged calls.
+     *
+     * @return instance of the constructor builder.
+     * @throws Exception can fail during annotations extraction
+     */
+    @NonNull
+    protected MethodSpec.Builder createHedgeConstructor() throws Exception {
+        final MethodSpec.Builder builder = MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(ParameterSpec.builder(superType, "instance", Modifier.FINAL)
+                        .addAnnotation(NonNull.class).build())
+                .addParameter(ParameterSpec.builder(superType, SECONDARY, Modifier.FINAL)
+                        .addAnnotation(NonNull.class).build())
+                .addStatement("this.inner = $L", innerOf("instance"))
+                .addStatement("this.$L = $N", SECONDARY, SECONDARY);
+
+        if (type.annotation.lazy()) {
+            builder.addStatement("this.$L = null", SUPPLIER);
+        }
+
+        createBatchers(builder);
+
+        return builder;
+    }
+
+    /**
+     * Create constructor of unbound proxy, inner instance provided later by rebind().
+     *
+     * @return instance of the constructor builder.
+     * @throws Exception can fail during annotations extraction
+     */
+    @NonNull
+    protected MethodSpec.Builder createUnboundConstructor() throws Exception {
+        final MethodSpec.Builder builder = MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PUBLIC);
+
+        if (type.annotation.actor()) {
+            builder.addStatement("this.$L = new $T()", MAILBOX, Mailbox.class);
+        }
+
+        if (hasMethodAnnotation(AutoProxy.Hedge.class)) {
+            builder.addStatement("this.$L = null", SECONDARY);
+        }
+
+        createBatchers(builder);
+
+        return builder;
+    }
+
+    /**
+     * Create public API of the rebindable inner instance.
+     *
+     * @param classSpec instance of class specification builder
+     */
+    protected void createRebindMethods(@NonNull final TypeSpec.Builder classSpec) {
+        final ParameterSpec instance = ParameterSpec.builder(superType, "instance", Modifier.FINAL)
+                .addAnnotation(NonNull.class).build();
+
+        classSpec.addMethod(MethodSpec.methodBuilder("rebind")
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addAnnotation(Nullable.class)
+                .returns(superType)
+                .addParameter(instance)
+                .addStatement("return $L.getAndSet(this, instance)", INNER_UPDATER)
+                .build());
+
+        classSpec.addMethod(MethodSpec.methodBuilder("unbind")
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addAnnotation(Nullable.class)
+                .returns(superType)
+                .addStatement("return $L.getAndSet(this, null)", INNER_UPDATER)
+                .build());
+
+        classSpec.addMethod(MethodSpec.methodBuilder("compareAndRebind")
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .returns(boolean.class)
+                .addParameter(ParameterSpec.builder(superType, "expected", Modifier.FINAL)
+                        .addAnnotation(Nullable.class).build())
+                .addParameter(ParameterSpec.builder(superType, "instance", Modifier.FINAL)
+                        .addAnnotation(Nullable.class).build())
+                .addStatement("return $L.compareAndSet(this, expected, instance)", INNER_UPDATER)
+                .build());
+
+        classSpec.addMethod(MethodSpec.methodBuilder("isBound")
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .returns(boolean.class)
+                .addStatement("return null != this.inner")
+                .build());
+    }
+
+    /**
+     * Create actor mode constructor with custom mailbox. One mailbox can be shared between proxies,
+     * also it can be used as executor of the async proxy.
+     *
+     * @return instance of the constructor builder.
+     */
+    @NonNull
+    protected MethodSpec.Builder createActorConstructor() throws Exception {
+        final ParameterSpec.Builder instance = ParameterSpec.builder(superType, "instance", Modifier.FINAL)
+                .addAnnotation(NonNull.class);
+        final ParameterSpec.Builder mailbox = ParameterSpec.builder(Mailbox.class, MAILBOX, Modifier.FINAL)
+                .addAnnotation(NonNull.class);
+
+        final MethodSpec.Builder builder = MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(instance.build())
+                .addParameter(mailbox.build())
+                .addStatement("this.inner = $L", innerOf("instance"))
+                .addStatement("this.$L = $N", MAILBOX, MAILBOX);
+
+        if (hasMethodAnnotation(AutoProxy.Hedge.class)) {
+            builder.addStatement("this.$L = null", SECONDARY);
+        }
+
+        if (type.annotation.lazy()) {
+            builder.addStatement("this.$L = null", SUPPLIER);
+        }
+
+        createBatchers(builder);
+
+        return builder;
+    }
+
+    /**
+     * Create methods for provided class.
+     *
+     * @param classSpec instance of class specification builder
+     * @throws Exception give a change to exceptions in depth to deliver the real cause
+     */
+    protected void createMethods(@NonNull final TypeSpec.Builder classSpec) throws Exception {
+        // compose methods
+        RuntimeException runtimeError = null;
+        for (final Element method : type.methods) {
+            if (!(method instanceof Symbol.MethodSymbol)) {
+                final String message = "Unexpected method type: " + method.getClass().getSimpleName();
+                errors.write(message + "\n");
+
+                runtimeError = new UnsupportedOperationException(message);
+                continue;
+            }
+
+            classSpec.addMethod(createMethod((Symbol.MethodSymbol) method).build());
+        }
+
+        // if were detected exception, throw it
+        if (null != runtimeError) {
+            throw runtimeError;
+        }
+    }
+
+    /**
+     * Create methods gate member.
+     *
+     * @return instance of the field specification.
+     */
+    @NonNull
+    protected FieldSpec createGateMember() {
+        return FieldSpec.builder(MethodGate.class, GATE, Modifier.PROTECTED, Modifier.FINAL)
+                .initializer("new $T($L.$L, $L)", MethodGate.class, METHODS, METHOD_COUNT,
+                        type.annotation.cachePredicate())
+                .build();
+    }
+
+    /**
+     * Attach methods gate member and its public API to the class of proxy variant, if gate requested.
+     *
+     * @param classSpec instance of class specification builder
+     */
+    protected void createGate(@NonNull final TypeSpec.Builder classSpec) {
+        if (!isGated()) return;
+
+        classSpec.addField(createGateMember());
+        createGateMethods(classSpec);
+    }
+
+    /**
+     * Create public API of the methods gate.
+     *
+     * @param classSpec instance of class specification builder
+     */
+    protected void createGateMethods(@NonNull final TypeSpec.Builder classSpec) {
+        classSpec.addMethod(MethodSpec.methodBuilder("setGate")
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addParameter(boolean.class, "open", Modifier.FINAL)
+                .addStatement("this.$L.setGate(open)", GATE)
+                .build());
+
+        classSpec.addMethod(MethodSpec.methodBuilder("enableAll")
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addStatement("this.$L.enableAll()", GATE)
+                .build());
+
+        for (final String name : new String[]{"enable", "disable"}) {
+            classSpec.addMethod(MethodSpec.methodBuilder(name)
+                    .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                    .addParameter(int[].class, "methodIds", Modifier.FINAL)
+                    .varargs(true)
+                    .addStatement("this.$L.$L(methodIds)", GATE, name)
+                    .build());
+        }
+
+        classSpec.addMethod(MethodSpec.methodBuilder("invalidate")
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addStatement("this.$L.invalidate()", GATE)
+                .build());
+    }
+
+    /**
+     * Create public API of the deferred calls.
+     *
+     * @param classSpec instance of class specification builder
+     */
+    protected void createDeferredMethods(@NonNull final TypeSpec.Builder classSpec) {
+        classSpec.addMethod(MethodSpec.methodBuilder("flushDeferred")
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .returns(int.class)
+                .addStatement("return this.$L.flush()", DEFERRED)
+                .build());
+
+        classSpec.addMethod(MethodSpec.methodBuilder("clearDeferred")
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addStatement("this.$L.clear()", DEFERRED)
+                .build());
+    }
+
+    /**
+     * Create scheduler provider method. Default is shared daemon thread, override it for delivery on
+     * specific thread or for tests (ManualScheduler).
+     *
+     * @return instance of the method builder.
+     */
+    @NonNull
+    protected MethodSpec.Builder createScheduler() {
+        return MethodSpec.methodBuilder(SCHEDULER)
+                .addModifiers(Modifier.PROTECTED)
+                .addAnnotation(NonNull.class)
+                .returns(Scheduler.class)
+                .addStatement("return $T.shared()", Schedulers.class);
+    }
+
+    /**
+     * Create public API that delivers all accumulated batches, e.g. on shutdown.
+     *
+     * @return instance of the method builder.
+     * @throws Exception can fail during annotations extraction
+     */
+    @NonNull
+    protected MethodSpec.Builder createFlushBatches() throws Exception {
+        final MethodSpec.Builder builder = MethodSpec.methodBuilder("flushBatches")
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .returns(int.class)
+                .addStatement("int count = 0");
+
+        for (final Element method : type.methods) {
+            final Symbol.MethodSymbol ms = (Symbol.MethodSymbol) method;
+            if (null == findMethodAnnotation(ms, AutoProxy.Batch.class)) continue;
+
+            builder.addStatement("count += this.$L.flush()", toMemberName("batch", ms));
+        }
+
+        return builder.addStatement("return count");
+    }
+
+    /**
+     * Initialize batcher members in constructor. Batches delivered through the proxied target method, so
+     * predicate and inner instance are checked again at delivery time, also for delayed deliveries on
+     * scheduler thread.
+     *
+     * @param builder instance of the constructor builder
+     * @throws Exception can fail during annotations extraction
+     */
+    protected void createBatchers(@NonNull final MethodSpec.Builder builder) throws Exception {
+        for (final Element method : type.methods) {
+            final Symbol.MethodSymbol ms = (Symbol.MethodSymbol) method;
+            final Attribute.Compound batch = findMethodAnnotation(ms, AutoProxy.Batch.class);
+            if (null == batch) continue;
+
+            final AutoProxy.Batch annotation = extractAnnotation(AutoProxy.Batch.class, batch);
+            final Symbol.MethodSymbol target = findBatchTarget(ms, annotation.target());
+
+            // mailbox delivers later, buffer of the batch is reused
+            final CodeBlock items = type.annotation.actor()
+                    ? CodeBlock.of("new $T<>(items)", ArrayList.class)
+                    : CodeBlock.of("items");
+
+            builder.addStatement("this.$L = new $T<>($L, $LL, items -> $N($L))", toMemberName("batch", ms), Batcher.class,
+                    annotation.maxSize(), annotation.maxDelayMs(), target.getSimpleName().toString(), items);
+        }
+    }
+
+    /**
+     * Find batch method for single item method. Item method should be VOID with one parameter, target
+     * should be VOID method that accepts List, Collection or Iterable.
+     *
+     * @param ms   reference on the single item method
+     * @param name name of the target method
+     * @return reference on the target method
+     */
+    @NonNull
+    protected Symbol.MethodSymbol findBatchTarget(@NonNull final Symbol.MethodSymbol ms, @NonNull final String name) {
+        if (ms.getReturnType().getKind() == TypeKind.VOID && ms.getParameters().size() == 1) {
+            for (final Element method : type.methods) {
+                final Symbol.MethodSymbol candidate = (Symbol.MethodSymbol) method;
+                if (!candidate.getSimpleName().contentEquals(name)) continue;
+                if (candidate.getReturnType().getKind() != TypeKind.VOID) continue;
+                if (candidate.getParameters().size() != 1) continue;
+
+                final String collection = candidate.getParameters().get(0).asType().tsym.getQualifiedName().toString();
+                if ("java.util.List".equals(collection) || "java.util.Collection".equals(collection)
+                        || "java.lang.Iterable".equals(collection)) {
+                    return candidate;
+                }
+            }
+        }
+
+        final String message = "@AutoProxy.Batch requires VOID method with one parameter and VOID target method `"
+                + name + "` that accepts List, Collection or Iterable: " + ms;
+        throw reject(ms, message);
+    }
+
+    /**
+     * Create public API of the results cache: lookup of the method cache by ordinal, invalidation of all
+     * caches and clock provider used for expiration.
+     *
+     * @param classSpec instance of class specification builder
+     * @throws Exception can fail during annotations extraction
+     */
+    protected void createCacheMethods(@NonNull final TypeSpec.Builder classSpec) throws Exception {
+        final MethodSpec.Builder cacheOf = MethodSpec.methodBuilder("cacheOf")
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addAnnotation(Nullable.class)
+                .returns(ResultCache.class)
+                .addParameter(int.class, "methodId", Modifier.FINAL)
+                .beginControlFlow("switch (methodId)");
+
+        final MethodSpec.Builder invalidate = MethodSpec.methodBuilder("invalidateCaches")
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL);
+
+        for (final Element method : type.methods) {
+            final Symbol.MethodSymbol ms = (Symbol.MethodSymbol) method;
+            if (null == findMethodAnnotation(ms, AutoProxy.Cached.class)) continue;
+
+            cacheOf.addStatement("case $L.$L: return this.$L", METHODS, ordinals.get(ms), toMemberName("cache", ms));
+            invalidate.addStatement("this.$L.clear()", toMemberName("cache", ms));
+        }
+
+        cacheOf.addStatement("default: return null")
+                .endControlFlow();
+
+        classSpec.addMethod(cacheOf.build());
+        classSpec.addMethod(invalidate.build());
+    }
+
+    /**
+     * Create listener of circuit breakers state changes, empty by default.
+     *
+     * @return instance of the method builder.
+     */
+    @NonNull
+    protected MethodSpec.Builder createCircuitListener() {
+        return MethodSpec.methodBuilder(CIRCUIT_LISTENER)
+                .addModifiers(Modifier.PROTECTED)
+                .addParameter(int.class, "methodId", Modifier.FINAL)
+                .addParameter(ParameterSpec.builder(String.class, "methodName", Modifier.FINAL)
+                        .addAnnotation(ClassName.bestGuess(METHODS))
+                        .addAnnotation(NonNull.class).build())
+                .addParameter(int.class, "from", Modifier.FINAL)
+                .addParameter(int.class, "to", Modifier.FINAL)
+                .addComment("override to observe $T.CLOSED/OPEN/HALF_OPEN transitions", CircuitBreaker.class);
+    }
+
+    /**
+     * Create source of time, override it by {@link com.olku.runtime.ManualClock} in tests.
+     *
+     * @return instance of the method builder.
+     */
+    @NonNull
+    protected MethodSpec.Builder createClock() {
+        return MethodSpec.methodBuilder(CLOCK)
+                .addModifiers(Modifier.PROTECTED)
+                .addAnnotation(NonNull.class)
+                .returns(Clock.class)
+                .addStatement("return $T.SYSTEM", Clock.class);
+    }
+
+    /**
+     * Compose return of the result via method cache: lookup, inner call on miss and store.
+     *
+     * @param builder   instance of poet method builder
+     * @param ms        reference on the proxied method
+     * @param arguments enumerated arguments of the method
+     * @param result    expression that produce result of the call
+     */
+    protected void createCachedReturn(@NonNull final MethodSpec.Builder builder,
+                                      @NonNull final Symbol.MethodSymbol ms,
+                                      @NonNull final CharSequence arguments,
+                                      @NonNull final CodeBlock result) {
+        final Type returnType = ms.getReturnType();
+        final String cache = toMemberName("cache", ms);
+        CodeBlock key = createCacheKey(ms, arguments);
+
+        if (returnType.isParameterized()) {
+            builder.addAnnotation(AnnotationSpec.builder(SuppressWarnings.class)
+                    .addMember("value", "$S", "unchecked").build());
+        }
+
+        // composite key allocated once per call
+        if (ms.getParameters().size() > 1) {
+            builder.addStatement("final $T key = $L", Object.class, key);
+            key = CodeBlock.of("key");
+        }
+
+        // result of the call that overlaps invalidation is not stored
+        builder.addStatement("final long epoch = this.$L.epoch()", cache);
+        builder.addStatement("final $T cached = this.$L.get($L, $L())", Object.class, cache, key, CLOCK);
+        builder.addStatement("if ($T.MISS != cached) return ($T) cached", ResultCache.class, TypeName.get(returnType).box());
+        builder.addStatement("final $T result = $L", TypeName.get(returnType), result);
+        builder.addStatement("this.$L.put($L, result, epoch, $L())", cache, key, CLOCK);
+        builder.addStatement("return result");
+    }
+
+    /**
+     * Compose key of the cache: primitive value for single integral parameter, parameter itself for single
+     * reference parameter, otherwise composite key.
+     *
+     * @param ms        reference on the proxied method
+     * @param arguments enumerated arguments of the method
+     * @return expression of the key.
+     */
+    @NonNull
+    protected CodeBlock createCacheKey(@NonNull final Symbol.MethodSymbol ms, @NonNull final CharSequence arguments) {
+        final int count = ms.getParameters().size();
+
+        if (0 == count) return CodeBlock.of("0L");
+        if (1 == count) return CodeBlock.of("$L", arguments);
+
+        return CodeBlock.of("$T.key($L)", ResultCache.class, arguments);
+    }
+
+    /**
+     * Can method results be cached by primitive key without allocation.
+     *
+     * @param ms reference on the proxied method
+     * @return TRUE - no parameters or single integral parameter, otherwise FALSE.
+     */
+    protected boolean isPrimitiveKey(@NonNull final Symbol.MethodSymbol ms) {
+        if (ms.getParameters().isEmpty()) return true;
+        if (ms.getParameters().size() != 1) return false;
+
+        switch (ms.getParameters().get(0).asType().getKind()) {
+            case BYTE:
+            case SHORT:
+            case CHAR:
+            case INT:
+            case LONG:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Compose invalidation of the caches listed in annotation.
+     *
+     * @param builder    instance of poet method builder
+     * @param ms         reference on the mutating method
+     * @param annotation names of cached methods
+     * @throws Exception can fail during annotations extraction
+     */
+    protected void createInvalidation(@NonNull final MethodSpec.Builder builder,
+                                      @NonNull final Symbol.MethodSymbol ms,
+                                      @NonNull final AutoProxy.Invalidates annotation) throws Exception {
+        final List<String> requested = Arrays.asList(annotation.value());
+        final Set<String> unknown = new TreeSet<>(requested);
+
+        for (final Element method : type.methods) {
+            final Symbol.MethodSymbol cached = (Symbol.MethodSymbol) method;
+            if (null == findMethodAnnotation(cached, AutoProxy.Cached.class)) continue;
+
+            final String name = cached.getSimpleName().toString();
+            unknown.remove(name);
+
+            if (requested.isEmpty() || requested.contains(name)) {
+                builder.addStatement("this.$L.clear()", toMemberName("cache", cached));
+            }
+        }
+
+        if (!unknown.isEmpty()) {
+            final String message = "@AutoProxy.Invalidates refers to unknown cached methods " + unknown + ": " + ms;
+            throw reject(ms, message);
+        }
+    }
+
+    /**
+     * Create predicate method declaration.
+     *
+     * @return instance of the method builder.
+     */
+    @NonNull
+    protected MethodSpec.Builder createPredicate() {
+        // TODO: resolve potential name conflict
+
+        final String methodName = PREDICATE;
+        final MethodSpec.Builder builder = MethodSpec.methodBuilder(methodName);
+        builder.addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT);
+        builder.returns(boolean.class);
+
+        final ParameterSpec pMethodNames = ParameterSpec.builder(String.class, "methodName", Modifier.FINAL)
+                .addAnnotation(AnnotationSpec.builder(ClassName.bestGuess(METHODS)).build())
+                .addAnnotation(AnnotationSpec.builder(NonNull.class).build())
+                .build();
+
+        builder.addParameter(pMethodNames);
+
+        // varargs 
+        builder.varargs(true);
+        builder.addParameter(Object[].class, "args", Modifier.FINAL);
+
+        return builder;
+    }
+
+    /**
+     * Create predicate method declaration that receives method ordinal. By default forwards call to
+     * {@link #createPredicate()} method, override it for switch/array based dispatching.
+     *
+     * @return instance of the method builder.
+     */
+    @NonNull
+    protected MethodSpec.Builder createOrdinalPredicate() {
+        final MethodSpec.Builder builder = MethodSpec.methodBuilder(PREDICATE);
+        builder.addModifiers(Modifier.PUBLIC);
+        builder.returns(boolean.class);
+
+        builder.addParameter(int.class, "methodId", Modifier.FINAL);
+
+        final ParameterSpec pMethodNames = ParameterSpec.builder(String.class, "methodName", Modifier.FINAL)
+                .addAnnotation(AnnotationSpec.builder(ClassName.bestGuess(METHODS)).build())
+                .addAnnotation(AnnotationSpec.builder(NonNull.class).build())
+                .build();
+        builder.addParameter(pMethodNames);
+
+        builder.varargs(true);
+        builder.addParameter(Object[].class, "args", Modifier.FINAL);
+
+        builder.addStatement("return $L(methodName, args)", PREDICATE);
+
+        return builder;
+    }
+
+    /**
+     * Create companion interface with typed predicate per each proxied method. All hooks by default allow the call.
+     *
+     * @return instance of the interface builder.
+     * @throws Exception can fail during mimicing signature of the methods
+     */
+    @NonNull
+    protected TypeSpec.Builder createHooks() throws Exception {
+        final TypeSpec.Builder builder = TypeSpec.interfaceBuilder(HOOKS + type.flatClassName)
+                .addModifiers(Modifier.PUBLIC);
+
+        for (final Element method : type.methods) {
+            if (!(method instanceof Symbol.MethodSymbol)) continue;
+
+            final Symbol.MethodSymbol ms = (Symbol.MethodSymbol) method;
+            final MethodSpec.Builder hook = MethodSpec.methodBuilder(toHookName(ms.getSimpleName().toString()))
+                    .addModifiers(Modifier.PUBLIC, Modifier.DEFAULT)
+                    .returns(boolean.class);
+
+            mimicParameters(hook, ms);
+            hook.addStatement("return true");
+
+            builder.addMethod(hook.build());
+        }
+
+        return builder;
+    }
+
+    /**
+     * Compose beginning of the predicate check, code inside the flow executed when call is not allowed.
+     *
+     * @param builder   instance of poet method builder
+     * @param ms        reference on the proxied method
+     * @param arguments enumerated arguments of the method
+     */
+    protected void createPredicateCheck(@NonNull final MethodSpec.Builder builder,
+                                        @NonNull final Symbol.MethodSymbol ms,
+                                        @NonNull final CharSequence arguments) {
+        createPredicateCheck(builder, ms, arguments, null);
+    }
+
+    /**
+     * Compose beginning of the predicate check with precondition, predicate is not called if guard is TRUE.
+     *
+     * @param builder   instance of poet method builder
+     * @param ms        reference on the proxied method
+     * @param arguments enumerated arguments of the method
+     * @param guard     expression that cancels call without predicate, e.g. unbound inner instance
+     */
+    protected void createPredicateCheck(@NonNull final MethodSpec.Builder builder,
+                                        @NonNull final Symbol.MethodSymbol ms,
+                                        @NonNull final CharSequence arguments,
+                                        @Nullable final CodeBlock guard) {
+        final String prefix = null == guard ? "" : guard + " || ";
+
+        if (!isGated()) {
+            builder.beginControlFlow("if (" + prefix + "!$L)", createPredicateCall(ms, arguments));
+            return;
+        }
+
+        // one volatile read of the gate state, than predicate only if gate ask for it
+        builder.addStatement("final $T gateState = this.$L.state()", MethodGate.State.class, GATE);
+        builder.addStatement("final int decision = gateState.decide($L.$L)", METHODS, ordinals.get(ms));
+        builder.beginControlFlow("if (" + prefix + "$T.DENY == decision || $T.ASK == decision && !this.$L.remember(gateState, $L.$L, $L))",
+                MethodGate.class, MethodGate.class, GATE, METHODS, ordinals.get(ms), createPredicateCall(ms, arguments));
+    }
+
+    /**
+     * Compose snapshot of the inner instance and precondition of the call. Rebindable or weak inner instance is
+     * read once per call, so predicate and call see the same instance.
+     *
+     * @param builder instance of poet method builder
+     * @return guard expression or NULL if inner instance is always available.
+     */
+    @Nullable
+    protected CodeBlock createInnerGuard(@NonNull final MethodSpec.Builder builder) {
+        if (!type.annotation.rebindable() && !type.annotation.weak()) return null;
+
+        builder.addStatement("final $T inner = this.inner$L", superType, type.annotation.weak() ? ".get()" : "");
+        return CodeBlock.of("null == inner");
+    }
+
+    /**
+     * Compose predicate call expression for the proxied method.
+     *
+     * @param ms        reference on the proxied method
+     * @param arguments enumerated arguments of the method
+     * @return code block that evaluates to boolean, TRUE - allow inner instance call.
+     */
+    @NonNull
+    protected CodeBlock createPredicateCall(@NonNull final Symbol.MethodSymbol ms,
+                                            @NonNull final CharSequence arguments) {
+        final String methodName = ms.getSimpleName().toString();
+
+        if (type.annotation.hooks()) {
+            return CodeBlock.of("$L($L)", toHookName(methodName), arguments);
+        }
+
+        return CodeBlock.of("$L( $L.$L, $L.$L$L )", PREDICATE,
+                METHODS, ordinals.get(ms),
+                METHODS, toConstantName(methodName),
+                (arguments.length() == 0 ? "" : ", ") + arguments);
+    }
+
+    /**
+     * Create afterCall method declaration.
+     *
+     * @return instance of the method builder.
+     */
+    @NonNull
+    protected MethodSpec.Builder createAfterCall() {
+        final MethodSpec.Builder builder = MethodSpec.methodBuilder(AFTERCALL);
+        builder.addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT);
+
+        builder.addTypeVariable(TypeVariableName.get("R", Object.class));
+
+        builder.returns(TypeVariableName.get("R"));
+
+        final ParameterSpec pMethodNames = ParameterSpec.builder(String.class, "methodName", Modifier.FINAL)
+                .addAnnotation(AnnotationSpec.builder(ClassName.bestGuess(METHODS)).build())
+                .addAnnotation(AnnotationSpec.builder(NonNull.class).build())
+                .build();
+        builder.addParameter(pMethodNames);
+
+        builder.addParameter(TypeVariableName.get("R"), "result", Modifier.FINAL);
+
+        return builder;
+    }
+
+    /**
+     * Create afterCall method declaration that receives method ordinal. By default forwards call to
+     * {@link #createAfterCall()} method.
+     *
+     * @return instance of the method builder.
+     */
+    @NonNull
+    protected MethodSpec.Builder createOrdinalAfterCall() {
+        final MethodSpec.Builder builder = MethodSpec.methodBuilder(AFTERCALL);
+        builder.addModifiers(Modifier.PUBLIC);
+
+        builder.addTypeVariable(TypeVariableName.get("R", Object.class));
+
+        builder.returns(TypeVariableName.get("R"));
+
+        builder.addParameter(int.class, "methodId", Modifier.FINAL);
+
+        final ParameterSpec pMethodNames = ParameterSpec.builder(String.class, "methodName", Modifier.FINAL)
+                .addAnnotation(AnnotationSpec.builder(ClassName.bestGuess(METHODS)).build())
+                .addAnnotation(AnnotationSpec.builder(NonNull.class).build())
+                .build();
+        builder.addParameter(pMethodNames);
+
+        builder.addParameter(TypeVariableName.get("R"), "result", Modifier.FINAL);
+
+        builder.addStatement("return $L(methodName, result)", AFTERCALL);
+
+        return builder;
+    }
+
+    /**
+     * Create afterCall method declaration specialized for primitive return type. By default forwards call to
+     * {@link #createOrdinalAfterCall()} method, override it for post-processing without boxing.
+     *
+     * @param kind primitive return type
+     * @return instance of the method builder.
+     */
+    @NonNull
+    protected MethodSpec.Builder createPrimitiveAfterCall(@NonNull final TypeKind kind) {
+        final TypeName primitive = toPrimitiveType(kind);
+
+        final MethodSpec.Builder builder = MethodSpec.methodBuilder(toAfterCallName(kind));
+        builder.addModifiers(Modifier.PUBLIC);
+        builder.returns(primitive);
+
+        builder.addParameter(int.class, "methodId", Modifier.FINAL);
+
+        final ParameterSpec pMethodNames = ParameterSpec.builder(String.class, "methodName", Modifier.FINAL)
+                .addAnnotation(AnnotationSpec.builder(ClassName.bestGuess(METHODS)).build())
+                .addAnnotation(AnnotationSpec.builder(NonNull.class).build())
+                .build();
+        builder.addParameter(pMethodNames);
+
+        builder.addParameter(primitive, "result", Modifier.FINAL);
+
+        builder.addStatement("return $L(methodId, methodName, ($T) result)", AFTERCALL, primitive.box());
+
+        return builder;
+    }
+
+    @NonNull
+    protected MethodSpec.Builder createMethod(final Symbol.MethodSymbol ms) throws Exception {
+        final String methodName = ms.getSimpleName().toString();
+        final MethodSpec.Builder builder = MethodSpec.methodBuilder(methodName);
+
+        this.knownMethods.add(methodName);
+
+        builder.addModifiers(Modifier.FINAL, Modifier.PUBLIC);
+
+        // extract annotations of return type / method. copy all, except @Yield & @AfterCall
+        mimicMethodAnnotations(builder, ms);
+
+        // extract our own annotations
+        final Attribute.Compound after = findAfterMethodAnnotation(ms);
+        final Attribute.Compound defer = findMethodAnnotation(ms, AutoProxy.Defer.class);
+        final Attribute.Compound coalesce = findMethodAnnotation(ms, AutoProxy.Coalesce.class);
+        final Attribute.Compound batch = findMethodAnnotation(ms, AutoProxy.Batch.class);
+        final Attribute.Compound cached = findMethodAnnotation(ms, AutoProxy.Cached.class);
+        final Attribute.Compound invalidates = findMethodAnnotation(ms, AutoProxy.Invalidates.class);
+        final Attribute.Compound rateLimit = findMethodAnnotation(ms, AutoProxy.RateLimit.class);
+        final Attribute.Compound bulkhead = findBulkheadAnnotation(ms);
+        final Attribute.Compound breaker = findMethodAnnotation(ms, AutoProxy.CircuitBreaker.class);
+        final Attribute.Compound timeout = findMethodAnnotation(ms, AutoProxy.Timeout.class);
+        final Attribute.Compound hedge = findMethodAnnotation(ms, AutoProxy.Hedge.class);
+        final Attribute.Compound flight = findMethodAnnotation(ms, AutoProxy.SingleFlight.class);
+
+        // extract return type
+        final Type returnType = ms.getReturnType();
+        final boolean hasReturn = returnType.getKind() != TypeKind.VOID;
+        builder.returns(TypeName.get(returnType));
+
+        if ((null != defer || null != coalesce) && hasReturn) {
+            final String message = "@AutoProxy.Defer and @AutoProxy.Coalesce support only VOID methods: " + ms;
+            throw reject(ms, message);
+        }
+
+        if ((null != cached || null != flight) && !hasReturn) {
+            final String message = "@AutoProxy.Cached and @AutoProxy.SingleFlight support only non-VOID methods: " + ms;
+            throw reject(ms, message);
+        }
+
+        if (null != timeout && (null != coalesce || null != batch || null != cached || type.annotation.actor())) {
+            final String message = "@AutoProxy.Timeout cannot be combined with Coalesce, Batch, Cached or actor mode: " + ms;
+            throw reject(ms, message);
+        }
+
+        if (null != hedge && (!hasReturn || null != timeout || type.annotation.actor())) {
+            final String message = "@AutoProxy.Hedge supports only non-VOID methods without Timeout and actor mode: " + ms;
+            throw reject(ms, message);
+        }
+
+        // extract parameters
+        final StringBuilder arguments = mimicParameters(builder, ms);
+
+        // extract throws
+        mimicThrows(builder, ms);
+
+        // event duration includes predicate
+        if (type.annotation.flightRecorder()) {
+            builder.addStatement("final $L event = $L.start($L.$L, $L.$L)", CALL_EVENT, CALL_EVENT,
+                    METHODS, ordinals.get(ms), METHODS, toConstantName(methodName));
+        }
+
+        createPredicateCheck(builder, ms, arguments, createInnerGuard(builder));
+
+        if (type.annotation.metrics()) {
+            builder.addStatement("this.$L.rejected($L.$L)", METRICS, METHODS, ordinals.get(ms));
+        }
+
+        if (type.annotation.flightRecorder()) {
+            builder.addStatement("event.rejected()");
+        }
+
+        // generate default return value
+        createCanceledPart(builder, ms, arguments);
+
+        builder.endControlFlow();
+
+        // no free permit or token, fail fast without waiting. Permit is returned, token is not: bulkhead goes
+        // first, so calls rejected by bulkhead do not consume tokens
+        if (null != bulkhead) {
+            createRejection(builder, ms, arguments, CodeBlock.of("!this.$L.tryAcquire()", toMemberName("bulkhead", ms)));
+
+            builder.beginControlFlow("try");
+        }
+
+        if (null != rateLimit) {
+            createRejection(builder, ms, arguments,
+                    CodeBlock.of("!this.$L.tryAcquire($L().nanoTime())", toMemberName("rateLimit", ms), CLOCK));
+        }
+
+        // allowed call always reports outcome, otherwise half-open probe never completes
+        if (null != breaker) {
+            builder.addStatement("final long startedAt = $L().nanoTime()", CLOCK);
+            builder.addStatement("final $T admitted = this.$L.allow(startedAt)", CircuitBreaker.Generation.class, toMemberName("breaker", ms));
+            createRejection(builder, ms, arguments, CodeBlock.of("null == admitted"));
+
+            builder.addStatement("boolean failed = false");
+            builder.beginControlFlow("try");
+        }
+
+        // measure the call, failures re-thrown as is
+        final boolean measured = type.annotation.metrics() || type.annotation.flightRecorder();
+
+        if (type.annotation.metrics()) {
+            builder.addStatement("final long started = $T.start()", ProxyMetrics.class);
+        }
+
+        if (measured) {
+            builder.beginControlFlow("try");
+        }
+
+        // caches dropped even if mutation failed
+        if (null != invalidates) {
+            builder.beginControlFlow("try");
+        }
+
+        // created by the first allowed call
+        if (type.annotation.lazy() && null == batch) {
+            builder.addStatement("final $T inner = inner()", superType);
+        }
+
+        // generate return
+        CodeBlock call = createInnerCall(ms, arguments);
+
+        // race of inner and secondary instances, without secondary instance call executed in place
+        if (null != hedge) {
+            call = CodeBlock.of("this.$L.call($L(), () -> $L, null == this.$L ? null : () -> this.$L.$N($L))",
+                    toMemberName("hedge", ms), HEDGE_EXECUTOR, call, SECONDARY, SECONDARY, methodName, arguments);
+        }
+
+        // one caller per arguments, on cache miss only
+        if (null != flight) {
+            call = CodeBlock.of("this.$L.call($L, () -> $L)", toMemberName("flight", ms), createCacheKey(ms, arguments), call);
+        }
+
+        // inner call on executor, result unpacked below
+        if (null != timeout) {
+            final CodeBlock task = hasReturn ? CodeBlock.of("() -> $L", call)
+                    : CodeBlock.of("() -> {\n$>$L;\nreturn null;\n$<}", call);
+
+            builder.addStatement("final $T outcome = $T.call($L(), $L, $LL)", Object.class, Deadline.class,
+                    TIMEOUT_EXECUTOR, task, extractAnnotation(AutoProxy.Timeout.class, timeout).value());
+            builder.beginControlFlow("if ($T.TIMEOUT == outcome)", Deadline.class);
+
+            // timeout is a failure of the call, even if caller receives yield value
+            if (null != breaker) {
+                builder.addStatement("failed = true");
+            }
+
+            if (type.annotation.metrics()) {
+                builder.addStatement("this.$L.error($L.$L)", METRICS, METHODS, ordinals.get(ms));
+            }
+
+            if (type.annotation.flightRecorder()) {
+                builder.addStatement("event.failed($T.class)", TimeoutException.class);
+            }
+
+            createYield(builder, ms);
+            builder.endControlFlow();
+
+            call = CodeBlock.of("($T) outcome", TypeName.get(returnType).box());
+        }
+
+        if (null != batch) {
+            builder.addStatement("this.$L.add($L, $L())", toMemberName("batch", ms), arguments, SCHEDULER);
+        } else if (null != coalesce) {
+            // delivery replayed through proxy, predicate and inner instance checked again at delivery time
+            builder.beginControlFlow("if (this.$L.isDelivering())", toMemberName("coalesce", ms));
+            builder.addStatement("$L", call);
+            builder.nextControlFlow("else");
+            builder.addStatement("this.$L.submit(() -> $N($L), $L())",
+                    toMemberName("coalesce", ms), methodName, arguments, SCHEDULER);
+            builder.endControlFlow();
+        } else if (!hasReturn && type.annotation.actor()) {
+            // full mailbox with YIELD policy
+            builder.beginControlFlow("if (!$L)", call);
+            createCanceledPart(builder, ms, arguments);
+            builder.endControlFlow();
+        } else if (!hasReturn) {
+            if (null == timeout) builder.addStatement("$L", call);
+        } else {
+            final CodeBlock result;
+
+            if (null == after) {
+                result = call;
+            } else if (returnType.isPrimitive()) {
+                afterCalls.set(true);
+                afterCallPrimitives.add(returnType.getKind());
+
+                result = CodeBlock.of("$L($L.$L, $L.$L, $L)", toAfterCallName(returnType.getKind()),
+                        METHODS, ordinals.get(ms),
+                        METHODS, toConstantName(methodName),
+                        call);
+            } else {
+                afterCalls.set(true);
+
+                result = CodeBlock.of("$L($L.$L, $L.$L, $L)", AFTERCALL,
+                        METHODS, ordinals.get(ms),
+                        METHODS, toConstantName(methodName),
+                        call);
+            }
+
+            if (null != cached) {
+                createCachedReturn(builder, ms, arguments, result);
+            } else {
+                builder.addStatement("return $L", result);
+            }
+        }
+
+        // void methods, after call without result
+        if (null != after && !hasReturn) {
+            afterCalls.set(true);
+
+            builder.addStatement("$L($L.$L, $L.$L, null)", AFTERCALL,
+                    METHODS, ordinals.get(ms),
+                    METHODS, toConstantName(methodName));
+        }
+
+        if (null != invalidates) {
+            builder.nextControlFlow("finally");
+            createInvalidation(builder, ms, extractAnnotation(AutoProxy.Invalidates.class, invalidates));
+            builder.endControlFlow();
+        }
+
+        if (measured) {
+            builder.nextControlFlow("catch (final $T error)", Throwable.class);
+            if (type.annotation.metrics()) {
+                builder.addStatement("this.$L.error($L.$L)", METRICS, METHODS, ordinals.get(ms));
+            }
+            if (type.annotation.flightRecorder()) {
+                builder.addStatement("event.failed(error.getClass())");
+            }
+            builder.addStatement("throw error");
+
+            builder.nextControlFlow("finally");
+            if (type.annotation.metrics()) {
+                builder.addStatement("this.$L.record($L.$L, started)", METRICS, METHODS, ordinals.get(ms));
+            }
+            if (type.annotation.flightRecorder()) {
+                builder.addStatement("event.complete()");
+            }
+            builder.endControlFlow();
+        }
+
+        if (null != breaker) {
+            builder.nextControlFlow("catch (final $T error)", Throwable.class);
+            builder.addStatement("failed = true");
+            builder.addStatement("throw error");
 
-            throw new UnsupportedOperationException(message);
+            builder.nextControlFlow("finally");
+            builder.addStatement("this.$L.complete(admitted, startedAt, $L().nanoTime(), failed)", toMemberName("breaker", ms), CLOCK);
+            builder.endControlFlow();
         }
 
-        for (final FieldSpec member : members) {
-            builder.addField(member);
+        if (null != bulkhead) {
+            builder.nextControlFlow("finally");
+            builder.addStatement("this.$L.release()", toMemberName("bulkhead", ms));
+            builder.endControlFlow();
         }
 
         return builder;
     }
 
-    @NonNull
-    protected MethodSpec.Builder createConstructor() {
-        final ParameterSpec.Builder param = ParameterSpec.builder(superType, "instance", Modifier.FINAL)
-                .addAnnotation(NonNull.class);
-
-        final MethodSpec.Builder builder = MethodSpec.constructorBuilder()
-                .addModifiers(Modifier.PUBLIC)
-                .addParameter(param.build())
-                .addStatement("this.inner = $N", "instance");
+    /**
+     * Compose yield of the method: @Yield value or return for VOID methods.
+     *
+     * @param builder instance of poet method builder
+     * @param ms      reference on the proxied method
+     * @throws Exception can fail during yield extraction
+     */
+    public void createYield(@NonNull final MethodSpec.Builder builder,
+                            @NonNull final Symbol.MethodSymbol ms) throws Exception {
+        final Type returnType = ms.getReturnType();
+        final Attribute.Compound yield = findYieldMethodAnnotation(ms);
 
-        return builder;
+        if (returnType.getKind() != TypeKind.VOID || null != yield) {
+            if (null != yield) builder.addComment("" + yield);
+            createYieldPart(builder, returnType, yield);
+        } else {
+            builder.addStatement("return");
+        }
     }
 
     /**
-     * Create methods for provided class.
+     * Compose rejection of the call by limit: counted as rejected and goes to canceled part.
      *
-     * @param classSpec instance of class specification builder
-     * @throws Exception give a change to exceptions in depth to deliver the real cause
+     * @param builder   instance of poet method builder
+     * @param ms        reference on the proxied method
+     * @param arguments enumerated arguments of the method
+     * @param condition condition of the rejection
+     * @throws Exception allow exception from depth to be raised on higher level
      */
-    protected void createMethods(@NonNull final TypeSpec.Builder classSpec) throws Exception {
-        // compose methods
-        RuntimeException runtimeError = null;
-        for (final Element method : type.methods) {
-            if (!(method instanceof Symbol.MethodSymbol)) {
-                final String message = "Unexpected method type: " + method.getClass().getSimpleName();
-                errors.write(message + "\n");
-
-                runtimeError = new UnsupportedOperationException(message);
-                continue;
-            }
-
-            classSpec.addMethod(createMethod((Symbol.MethodSymbol) method).build());
+    protected void createRejection(@NonNull final MethodSpec.Builder builder,
+                                   @NonNull final Symbol.MethodSymbol ms,
+                                   @NonNull final CharSequence arguments,
+                                   @NonNull final CodeBlock condition) throws Exception {
+        builder.beginControlFlow("if ($L)", condition);
+
+        if (type.annotation.metrics()) {
+            builder.addStatement("this.$L.rejected($L.$L)", METRICS, METHODS, ordinals.get(ms));
         }
 
-        // if were detected exception, throw it
-        if (null != runtimeError) {
-            throw runtimeError;
+        if (type.annotation.flightRecorder()) {
+            builder.addStatement("event.rejected()");
         }
+
+        createCanceledPart(builder, ms, arguments);
+        builder.endControlFlow();
     }
 
     /**
-     * Create predicate method declaration.
+     * Compose code executed when call to inner instance is not allowed: defer, yield value or simple return.
      *
-     * @return instance of the method builder.
+     * @param builder   instance of poet method builder
+     * @param ms        reference on the proxied method
+     * @param arguments enumerated arguments of the method
+     * @throws Exception allow exception from depth to be raised on higher level
      */
-    @NonNull
-    protected MethodSpec.Builder createPredicate() {
-        // TODO: resolve potential name conflict
-
-        final String methodName = PREDICATE;
-        final MethodSpec.Builder builder = MethodSpec.methodBuilder(methodName);
-        builder.addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT);
-        builder.returns(boolean.class);
-
-        final ParameterSpec pMethodNames = ParameterSpec.builder(String.class, "methodName", Modifier.FINAL)
-                .addAnnotation(AnnotationSpec.builder(ClassName.bestGuess(METHODS)).build())
-                .addAnnotation(AnnotationSpec.builder(NonNull.class).build())
-                .build();
-
-        builder.addParameter(pMethodNames);
-
-        // varargs 
-        builder.varargs(true);
-        builder.addParameter(Object[].class, "args", Modifier.FINAL);
+    protected void createCanceledPart(@NonNull final MethodSpec.Builder builder,
+                                      @NonNull final Symbol.MethodSymbol ms,
+                                      @NonNull final CharSequence arguments) throws Exception {
+        final Attribute.Compound yield = findYieldMethodAnnotation(ms);
+        final Attribute.Compound defer = findMethodAnnotation(ms, AutoProxy.Defer.class);
+        final Type returnType = ms.getReturnType();
+        final boolean hasReturn = returnType.getKind() != TypeKind.VOID;
 
-        return builder;
+        if (null != defer) {
+            // replay goes via proxy, so predicate will be asked again
+            builder.addStatement("this.$L.defer($L.$L, () -> $N($L))", DEFERRED,
+                    METHODS, ordinals.get(ms), ms.getSimpleName().toString(), arguments);
+            builder.addStatement("return");
+        } else if (hasReturn || null != yield) {
+            if (null != yield) builder.addComment("" + yield);
+            createYieldPart(builder, returnType, yield);
+        } else {
+            builder.addStatement("return");
+        }
     }
 
     /**
-     * Create afterCall method declaration.
+     * Compose expression of the inner instance call. In actor mode call is executed via mailbox: VOID methods
+     * post message (expression returns FALSE if message rejected), other methods wait for the result.
      *
-     * @return instance of the method builder.
+     * @param ms        reference on the proxied method
+     * @param arguments enumerated arguments of the method
+     * @return code block of the call
      */
     @NonNull
-    protected MethodSpec.Builder createAfterCall() {
-        final MethodSpec.Builder builder = MethodSpec.methodBuilder(AFTERCALL);
-        builder.addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT);
+    protected CodeBlock createInnerCall(@NonNull final Symbol.MethodSymbol ms,
+                                        @NonNull final CharSequence arguments) {
+        final String receiver = type.annotation.rebindable() || type.annotation.lazy() || type.annotation.weak()
+                ? "inner" : "this.inner";
+        final CodeBlock call = CodeBlock.of("$L.$N($L)", receiver, ms.getSimpleName().toString(), arguments);
 
-        builder.addTypeVariable(TypeVariableName.get("R", Object.class));
-
-        builder.returns(TypeVariableName.get("R"));
-
-        final ParameterSpec pMethodNames = ParameterSpec.builder(String.class, "methodName", Modifier.FINAL)
-                .addAnnotation(AnnotationSpec.builder(ClassName.bestGuess(METHODS)).build())
-                .addAnnotation(AnnotationSpec.builder(NonNull.class).build())
-                .build();
-        builder.addParameter(pMethodNames);
-
-        builder.addParameter(TypeVariableName.get("R"), "result", Modifier.FINAL);
+        if (!type.annotation.actor()) return call;
 
-        return builder;
+        final boolean hasReturn = ms.getReturnType().getKind() != TypeKind.VOID;
+        return CodeBlock.of("this.$L.$L(() -> $L)", MAILBOX, hasReturn ? "call" : "post", call);
     }
 
+    /**
+     * Create flight recorder event type of the proxy. Event instance is allocated only when event is enabled in
+     * recording, otherwise calls share one disabled instance, so disabled event costs one check per call
+     * without allocation.
+     *
+     * @return instance of the nested class builder.
+     */
     @NonNull
-    protected MethodSpec.Builder createMethod(final Symbol.MethodSymbol ms) throws Exception {
-        final String methodName = ms.getSimpleName().toString();
-        final MethodSpec.Builder builder = MethodSpec.methodBuilder(methodName);
-
-        this.knownMethods.add(methodName);
-
-        builder.addModifiers(Modifier.FINAL, Modifier.PUBLIC);
-
-        // extract annotations of return type / method. copy all, except @Yield & @AfterCall
-        mimicMethodAnnotations(builder, ms);
-
-        // extract our own annotations
-        final Attribute.Compound yield = findYieldMethodAnnotation(ms);
-        final Attribute.Compound after = findAfterMethodAnnotation(ms);
-
-        // extract return type
-        final Type returnType = ms.getReturnType();
-        final boolean hasReturn = returnType.getKind() != TypeKind.VOID;
-        builder.returns(TypeName.get(returnType));
+    protected TypeSpec.Builder createCallEvent() {
+        final String jfr = "jdk.jfr";
+        final ClassName event = ClassName.get("", CALL_EVENT);
+        final ClassName label = ClassName.get(jfr, "Label");
+        final ClassName eventType = ClassName.get(jfr, "EventType");
+
+        final TypeSpec.Builder builder = TypeSpec.classBuilder(CALL_EVENT)
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                .superclass(ClassName.get(jfr, "Event"))
+                .addAnnotation(AnnotationSpec.builder(ClassName.get(jfr, "Name"))
+                        .addMember("value", "$S", type.packageName + "." + PROXY + type.flatClassName).build())
+                .addAnnotation(AnnotationSpec.builder(label)
+                        .addMember("value", "$S", type.flatClassName + " Call").build())
+                .addAnnotation(AnnotationSpec.builder(ClassName.get(jfr, "Category"))
+                        .addMember("value", "$S", "AutoProxy").build())
+                .addAnnotation(AnnotationSpec.builder(ClassName.get(jfr, "StackTrace"))
+                        .addMember("value", "false").build());
+
+        final Object[][] fields = {
+                {String.class, "method", "Method"},
+                {int.class, "methodId", "Method Ordinal"},
+                {boolean.class, "allowed", "Allowed by Predicate"},
+                {String.class, "exception", "Exception Type"}};
+
+        for (final Object[] field : fields) {
+            builder.addField(FieldSpec.builder((Class<?>) field[0], (String) field[1])
+                    .addAnnotation(AnnotationSpec.builder(label).addMember("value", "$S", field[2]).build())
+                    .build());
+        }
 
-        // extract parameters
-        final StringBuilder arguments = mimicParameters(builder, ms);
+        builder.addField(FieldSpec.builder(eventType, "TYPE", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer("$T.getEventType($T.class)", eventType, event)
+                .build());
 
-        // extract throws
-        mimicThrows(builder, ms);
+        // shared by calls while event is disabled, never begins and never commits
+        builder.addField(FieldSpec.builder(event, "DISABLED", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer("new $T()", event)
+                .build());
 
-        builder.beginControlFlow("if (!$L( $L.$L$L ))", PREDICATE,
-                METHODS, toConstantName(methodName),
-                (arguments.length() == 0 ? "" : ", ") + arguments);
+        builder.addMethod(MethodSpec.methodBuilder("start")
+                .addModifiers(Modifier.STATIC)
+                .returns(event)
+                .addParameter(int.class, "methodId", Modifier.FINAL)
+                .addParameter(String.class, "method", Modifier.FINAL)
+                .beginControlFlow("if (!TYPE.isEnabled())")
+                .addStatement("return DISABLED")
+                .endControlFlow()
+                .addStatement("final $T event = new $T()", event, event)
+                .addStatement("event.methodId = methodId")
+                .addStatement("event.method = method")
+                .addStatement("event.allowed = true")
+                .addStatement("event.begin()")
+                .addStatement("return event")
+                .build());
 
-        // generate default return value
-        if (hasReturn || null != yield) {
-            if (null != yield) builder.addComment("" + yield);
-            createYieldPart(builder, returnType, yield);
-        } else {
-            builder.addStatement("return");
-        }
+        builder.addMethod(MethodSpec.methodBuilder("rejected")
+                .beginControlFlow("if (DISABLED != this)")
+                .addStatement("allowed = false")
+                .addStatement("commit()")
+                .endControlFlow()
+                .build());
 
-        builder.endControlFlow();
+        final TypeName errorType = ParameterizedTypeName.get(ClassName.get(Class.class),
+                WildcardTypeName.subtypeOf(Throwable.class));
 
-        // generate return
-        if (null == after) {
-            builder.addStatement((hasReturn ? "return " : "") + "this.inner.$N($L)", methodName, arguments);
-        } else {
-            afterCalls.set(true);
+        // failure recorded by type, no exception instance required
+        builder.addMethod(MethodSpec.methodBuilder("failed")
+                .addParameter(errorType, "errorType", Modifier.FINAL)
+                .beginControlFlow("if (DISABLED != this)")
+                .addStatement("exception = errorType.getName()")
+                .endControlFlow()
+                .build());
 
-            if (hasReturn) {
-                builder.addStatement("return $L($L.$L, this.inner.$N($L))", AFTERCALL,
-                        METHODS, toConstantName(methodName),
-                        methodName, arguments);
-            } else {
-                builder.addStatement("this.inner.$N($L)", methodName, arguments);
-                builder.addStatement("$L($S, null)", AFTERCALL, methodName);
-            }
-        }
+        builder.addMethod(MethodSpec.methodBuilder("complete")
+                .beginControlFlow("if (DISABLED != this)")
+                .addStatement("commit()")
+                .endControlFlow()
+                .build());
 
         return builder;
     }
@@ -369,6 +2001,20 @@ public class CommonClassGenerator implements AutoProxyClassGenerator {
 
         format.append("}"); // close array
 
+        // dense ordinals of methods, each overload has own identity
+        int ordinal = 0;
+        for (final String constant : ordinals.values()) {
+            typeMethods.addField(FieldSpec
+                    .builder(int.class, constant, Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("$L", ordinal++)
+                    .build());
+        }
+
+        typeMethods.addField(FieldSpec
+                .builder(int.class, METHOD_COUNT, Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                .initializer("$L", ordinal)
+                .build());
+
         typeMethods.addAnnotation(AnnotationSpec.builder(StringDef.class)
                 .addMember("value", format.toString(), constants.toArray())
                 .build());
@@ -376,6 +2022,132 @@ public class CommonClassGenerator implements AutoProxyClassGenerator {
         classSpec.addType(typeMethods.build());
     }
 
+    /**
+     * Compose name of the typed hook for provided method, e.g. `dummyCall` to `predicateDummyCall`.
+     *
+     * @param name name of the proxied method
+     * @return name of the hook method
+     */
+    @NonNull
+    protected String toHookName(@NonNull final String name) {
+        return PREDICATE + name.substring(0, 1).toUpperCase(Locale.US) + name.substring(1);
+    }
+
+    /**
+     * Compose name of afterCall method specialized for primitive type, e.g. `afterCallInt`.
+     *
+     * @param kind primitive type kind
+     * @return name of the method
+     */
+    @NonNull
+    protected String toAfterCallName(@NonNull final TypeKind kind) {
+        final String primitive = toPrimitiveType(kind).toString();
+
+        return AFTERCALL + primitive.substring(0, 1).toUpperCase(Locale.US) + primitive.substring(1);
+    }
+
+    /**
+     * Resolve poet type name for primitive type kind.
+     *
+     * @param kind primitive type kind
+     * @return type name of primitive
+     */
+    @NonNull
+    protected static TypeName toPrimitiveType(@NonNull final TypeKind kind) {
+        switch (kind) {
+            case BOOLEAN:
+                return TypeName.BOOLEAN;
+            case BYTE:
+                return TypeName.BYTE;
+            case SHORT:
+                return TypeName.SHORT;
+            case CHAR:
+                return TypeName.CHAR;
+            case INT:
+                return TypeName.INT;
+            case LONG:
+                return TypeName.LONG;
+            case FLOAT:
+                return TypeName.FLOAT;
+            case DOUBLE:
+                return TypeName.DOUBLE;
+            default:
+                throw new IllegalArgumentException("Not a primitive type: " + kind);
+        }
+    }
+
+    /**
+     * Compose name of the member dedicated to provided method, e.g. `coalesceShow` or `coalesceDummyCall2`
+     * for overloaded methods.
+     *
+     * @param prefix prefix of the member
+     * @param ms     reference on the proxied method
+     * @return name of the member
+     */
+    @NonNull
+    protected String toMemberName(@NonNull final String prefix, @NonNull final Symbol.MethodSymbol ms) {
+        final String name = ms.getSimpleName().toString();
+        final String overload = ordinals.get(ms).substring((ORDINAL + toConstantName(name)).length());
+
+        return prefix + name.substring(0, 1).toUpperCase(Locale.US) + name.substring(1) + overload.replace("_", "");
+    }
+
+    /**
+     * Compose name of the method in metrics, overloaded methods receive ordinal suffix, e.g. `render_1`.
+     *
+     * @param ms reference on the proxied method
+     * @return name of the method in metrics
+     */
+    @NonNull
+    protected String toMetricName(@NonNull final Symbol.MethodSymbol ms) {
+        final String name = ms.getSimpleName().toString();
+
+        return name + ordinals.get(ms).substring((ORDINAL + toConstantName(name)).length());
+    }
+
+    /**
+     * Is methods gate requested for generated class.
+     *
+     * @return TRUE - generate gate, otherwise FALSE.
+     */
+    protected boolean isGated() {
+        return type.annotation.gate() || type.annotation.cachePredicate();
+    }
+
+    /**
+     * Resolve type name of the companion hooks interface.
+     *
+     * @return class name of the hooks interface
+     */
+    @NonNull
+    protected ClassName hooksType() {
+        return ClassName.get(type.packageName.toString(), HOOKS + type.flatClassName);
+    }
+
+    /**
+     * Assign dense ordinal to each method. Overloaded methods receive own identity: `ID_NAME_0`, `ID_NAME_1`, etc.
+     * Ordinals are stable, methods are sorted during extraction.
+     */
+    protected void createOrdinals() {
+        final Map<String, Integer> overloads = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (final Element method : type.methods) {
+            final String name = method.getSimpleName().toString();
+            overloads.put(name, overloads.containsKey(name) ? overloads.get(name) + 1 : 1);
+        }
+
+        final Map<String, Integer> indexes = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (final Element method : type.methods) {
+            if (!(method instanceof Symbol.MethodSymbol)) continue;
+
+            final String name = method.getSimpleName().toString();
+            final int index = indexes.containsKey(name) ? indexes.get(name) : 0;
+            indexes.put(name, index + 1);
+
+            final String suffix = overloads.get(name) > 1 ? "_" + index : "";
+            ordinals.put((Symbol.MethodSymbol) method, ORDINAL + toConstantName(name) + suffix);
+        }
+    }
+
     /**
      * Convert provided name to CONSTANT name.
      *
@@ -435,6 +2207,54 @@ public class CommonClassGenerator implements AutoProxyClassGenerator {
         return RetNumber.ZERO.equals(value) || RetNumber.MAX.equals(value) || RetNumber.MIN.equals(value) || RetNumber.MINUS_ONE.equals(value);
     }
 
+    /**
+     * Extract annotation instance from compound. Values that are not declared in code taken from annotation defaults.
+     *
+     * @param clazz annotation class
+     * @param am    reference on compound attribute of annotation, NULL - only default values
+     * @param <A>   annotation type
+     * @return instance of annotation
+     * @throws Exception can fail during values extraction
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    protected <A extends Annotation> A extractAnnotation(@NonNull final Class<A> clazz,
+                                                         @Nullable final Attribute.Compound am) throws Exception {
+        final Map<String, Object> map = new HashMap<>();
+
+        // default values
+        for (final Method m : clazz.getDeclaredMethods()) {
+            if (null != m.getDefaultValue()) map.put(m.getName(), m.getDefaultValue());
+        }
+
+        if (null == am) return (A) AnnotationParser.annotationForMap(clazz, map);
+
+        // overrides
+        for (final Map.Entry<Symbol.MethodSymbol, Attribute> entry : am.getElementValues().entrySet()) {
+            final String key = entry.getKey().name.toString();
+            Object value = entry.getValue().getValue();
+
+            if (value instanceof Type.ClassType) {
+                final Name name = ((Type.ClassType) value).asElement().getQualifiedName();
+
+                value = Class.forName(name.toString());
+            } else if (entry.getValue() instanceof Attribute.Array) {
+                // arrays of constants, e.g. String[]
+                final Attribute[] items = ((Attribute.Array) entry.getValue()).values;
+                final Class<?> component = clazz.getDeclaredMethod(key).getReturnType().getComponentType();
+
+                value = Array.newInstance(component, items.length);
+                for (int i = 0; i < items.length; i++) {
+                    Array.set(value, i, items[i].getValue());
+                }
+            }
+
+            map.put(key, value);
+        }
+
+        return (A) AnnotationParser.annotationForMap(clazz, map);
+    }
+
     @NonNull
     protected AutoProxy.Yield extractYield(@Nullable final Attribute.Compound yield) throws Exception {
         // default values of Yield
@@ -479,8 +2299,8 @@ public class CommonClassGenerator implements AutoProxyClassGenerator {
                                               @NonNull final Symbol.MethodSymbol ms) throws Exception {
         if (ms.hasAnnotations()) {
             for (final Attribute.Compound am : ms.getAnnotationMirrors()) {
-                if (extractClass(am) == AutoProxy.Yield.class) continue;
-                if (extractClass(am) == AutoProxy.AfterCall.class) continue;
+                // skip own annotations: @Yield, @AfterCall, etc.
+                if (extractClass(am).getEnclosingClass() == AutoProxy.class) continue;
 
                 final AnnotationSpec.Builder builderAnnotation = mimicAnnotation(am);
                 if (null != builderAnnotation) {
@@ -492,26 +2312,62 @@ public class CommonClassGenerator implements AutoProxyClassGenerator {
 
     @Nullable
     public static Attribute.Compound findAfterMethodAnnotation(@NonNull final Symbol.MethodSymbol ms) throws Exception {
+        return findMethodAnnotation(ms, AutoProxy.AfterCall.class);
+    }
+
+    @Nullable
+    public static Attribute.Compound findYieldMethodAnnotation(@NonNull final Symbol.MethodSymbol ms) throws Exception {
+        return findMethodAnnotation(ms, AutoProxy.Yield.class);
+    }
+
+    @Nullable
+    public static Attribute.Compound findMethodAnnotation(@NonNull final Symbol.MethodSymbol ms,
+                                                         @NonNull final Class<?> annotation) throws Exception {
         if (ms.hasAnnotations()) {
             for (final Attribute.Compound am : ms.getAnnotationMirrors()) {
-                if (extractClass(am) == AutoProxy.AfterCall.class) return am;
+                if (extractClass(am) == annotation) return am;
             }
         }
 
         return null;
     }
 
+    /**
+     * Find concurrency limit of the method, method annotation overrides annotation of the type.
+     *
+     * @param ms reference on the proxied method
+     * @return bulkhead annotation or NULL if calls are not limited.
+     * @throws Exception can fail during annotations extraction
+     */
     @Nullable
-    public static Attribute.Compound findYieldMethodAnnotation(@NonNull final Symbol.MethodSymbol ms) throws Exception {
-        if (ms.hasAnnotations()) {
-            for (final Attribute.Compound am : ms.getAnnotationMirrors()) {
-                if (extractClass(am) == AutoProxy.Yield.class) return am;
-            }
+    protected Attribute.Compound findBulkheadAnnotation(@NonNull final Symbol.MethodSymbol ms) throws Exception {
+        final Attribute.Compound bulkhead = findMethodAnnotation(ms, AutoProxy.Bulkhead.class);
+        if (null != bulkhead) return bulkhead;
+
+        for (final Attribute.Compound am : ((Symbol) type.element).getAnnotationMirrors()) {
+            if (extractClass(am) == AutoProxy.Bulkhead.class) return am;
         }
 
         return null;
     }
 
+    /**
+     * Is any of processed methods annotated by provided annotation.
+     *
+     * @param annotation annotation class
+     * @return TRUE - at least one method has annotation, otherwise FALSE.
+     * @throws Exception can fail during annotations extraction
+     */
+    protected boolean hasMethodAnnotation(@NonNull final Class<?> annotation) throws Exception {
+        for (final Element method : type.methods) {
+            if (!(method instanceof Symbol.MethodSymbol)) continue;
+
+            if (null != findMethodAnnotation((Symbol.MethodSymbol) method, annotation)) return true;
+        }
+
+        return false;
+    }
+
     /**
      * Compose exceptions throwing signature.
      *
@@ -525,6 +2381,35 @@ public class CommonClassGenerator implements AutoProxyClassGenerator {
         }
     }
 
+    /**
+     * Compose name of the parameter in generated code: original name or name with suffix if it clashes with
+     * names declared by generated method body.
+     *
+     * @param ms    reference on method signature
+     * @param param parameter of the method
+     * @return name of the parameter
+     */
+    @NonNull
+    public static String toParameterName(@NonNull final Symbol.MethodSymbol ms, @NonNull final Symbol.VarSymbol param) {
+        String name = param.name.toString();
+
+        while (RESERVED.contains(name) || isParameterName(ms, param, name)) {
+            name += "Arg";
+        }
+
+        return name;
+    }
+
+    /** Is name taken by other parameter of the method. */
+    private static boolean isParameterName(@NonNull final Symbol.MethodSymbol ms, @NonNull final Symbol.VarSymbol param,
+                                           @NonNull final String name) {
+        for (final Symbol.VarSymbol other : ms.getParameters()) {
+            if (other != param && other.name.contentEquals(name)) return true;
+        }
+
+        return false;
+    }
+
     /**
      * Compose method parameters that mimic original code.
      *
@@ -546,12 +2431,15 @@ public class CommonClassGenerator implements AutoProxyClassGenerator {
 
             // mimic parameter of the method: name, type, modifiers
             final TypeName paramType = TypeName.get(param.asType());
-            final String parameterName = param.name.toString();
+            final String parameterName = toParameterName(ms, param);
             final ParameterSpec.Builder parameter = ParameterSpec.builder(paramType, parameterName, Modifier.FINAL);
 
             if (param.hasAnnotations()) {
                 // DONE: copy annotations of parameter
                 for (final Attribute.Compound am : param.getAnnotationMirrors()) {
+                    // skip own annotations: @ShardKey. compared by name, user annotations can be not loadable
+                    if (am.type.tsym.owner.getQualifiedName().contentEquals(AutoProxy.class.getCanonicalName())) continue;
+
                     final AnnotationSpec.Builder builderAnnotation = mimicAnnotation(am);
 
                     if (null != builderAnnotation) {
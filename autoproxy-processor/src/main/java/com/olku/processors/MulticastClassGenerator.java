@@ -0,0 +1,453 @@
+package com.olku.processors;
+
+import androidx.annotation.NonNull;
+
+import com.olku.annotations.AutoProxy;
+import com.olku.runtime.MethodGate;
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.TypeVariableName;
+import com.sun.tools.javac.code.Attribute;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Type;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+
+/**
+ * Multicast variant generator: Multicast_{Type} broadcasts each call to all registered delegates. Delegates
+ * stored in copy-on-write array, calls iterate it by index without iterators. Predicate is checked per
+ * delegate: typed hooks receive arguments as is, untyped predicate receives arguments packed once per call.
+ * Results are accumulated in locals of the method return type, so primitives are not boxed. Delegates are
+ * isolated: failure of one delegate does not stop the broadcast, first failure is re-thrown after it.
+ */
+@SuppressWarnings("WeakerAccess")
+public class MulticastClassGenerator {
+    /**
+     * Prefix of the multicast class.
+     */
+    protected static final String MULTICAST = "Multicast_";
+    /**
+     * Name of the delegates member.
+     */
+    protected static final String DELEGATES = "delegates";
+    /**
+     * Name of the delegates updater.
+     */
+    protected static final String UPDATER = "DELEGATES";
+    /**
+     * Name of the results reducer method.
+     */
+    protected static final String REDUCE = "reduce";
+    /**
+     * Name of the helper that re-throws failure of the delegate as is.
+     */
+    protected static final String SNEAKY = "sneaky";
+
+    /**
+     * Primitive return types of methods with reduce policy.
+     */
+    protected final Set<TypeKind> reducePrimitives = EnumSet.noneOf(TypeKind.class);
+
+    /**
+     * Generator of the synchronous proxy, source of ordinals and yields.
+     */
+    protected final CommonClassGenerator common;
+
+    /**
+     * Main constructor.
+     *
+     * @param common reference on synchronous proxy generator.
+     */
+    public MulticastClassGenerator(@NonNull final CommonClassGenerator common) {
+        this.common = common;
+    }
+
+    /**
+     * Compose multicast class.
+     *
+     * @param filer target of the generated sources
+     * @throws Exception can fail in depth, allow raising of exception on top
+     */
+    public void compose(@NonNull final Filer filer) throws Exception {
+        JavaFile.builder(common.type.packageName.toString(), createClass().build()).build().writeTo(filer);
+    }
+
+    @NonNull
+    protected ClassName multicastType() {
+        return ClassName.get(common.type.packageName.toString(), MULTICAST + common.type.flatClassName);
+    }
+
+    @NonNull
+    protected TypeSpec.Builder createClass() throws Exception {
+        final ClassName rawType = ClassName.get((TypeElement) common.type.element);
+        final ArrayTypeName arrayType = ArrayTypeName.of(rawType);
+
+        final TypeSpec.Builder builder = common.inheritSuperType(TypeSpec.classBuilder(multicastType())
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT));
+
+        builder.addField(FieldSpec.builder(ParameterizedTypeName.get(ClassName.get(AtomicReferenceFieldUpdater.class), multicastType(), arrayType),
+                UPDATER, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer("$T.newUpdater($T.class, $T.class, $S)", AtomicReferenceFieldUpdater.class,
+                        multicastType(), arrayType, DELEGATES)
+                .build());
+
+        if (!common.type.annotation.hooks()) {
+            builder.addField(FieldSpec.builder(Object[].class, "NO_ARGS", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("{}")
+                    .build());
+        }
+
+        builder.addField(FieldSpec.builder(arrayType, DELEGATES, Modifier.PROTECTED, Modifier.VOLATILE)
+                .initializer("new $T[0]", rawType)
+                .build());
+
+        createDelegatesMethods(builder, arrayType);
+        common.createGate(builder);
+
+        if (!common.type.annotation.hooks()) {
+            builder.addMethod(createPredicate().build());
+        }
+
+        boolean reduced = false;
+        for (final Element method : common.type.methods) {
+            final Symbol.MethodSymbol ms = (Symbol.MethodSymbol) method;
+
+            if (common.type.annotation.hooks()) {
+                builder.addMethod(createHook(ms).build());
+            }
+
+            builder.addMethod(createMethod(ms, arrayType).build());
+
+            if (AutoProxy.Multicast.REDUCE.equals(extractPolicy(ms))) {
+                reduced = true;
+
+                if (ms.getReturnType().isPrimitive()) reducePrimitives.add(ms.getReturnType().getKind());
+            }
+        }
+
+        if (reduced) {
+            builder.addMethod(createReduce().build());
+
+            for (final TypeKind kind : reducePrimitives) {
+                builder.addMethod(createPrimitiveReduce(kind).build());
+            }
+        }
+
+        builder.addMethod(createSneaky().build());
+
+        common.createNamesOfMethods(builder);
+
+        return builder;
+    }
+
+    /**
+     * Create helper that re-throws checked exceptions of the delegates without wrapping.
+     *
+     * @return instance of the method builder.
+     */
+    @NonNull
+    protected MethodSpec.Builder createSneaky() {
+        final TypeVariableName type = TypeVariableName.get("E", Throwable.class);
+
+        return MethodSpec.methodBuilder(SNEAKY)
+                .addAnnotation(AnnotationSpec.builder(SuppressWarnings.class).addMember("value", "$S", "unchecked").build())
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .addTypeVariable(type)
+                .returns(type)
+                .addParameter(ParameterSpec.builder(Throwable.class, "error", Modifier.FINAL)
+                        .addAnnotation(NonNull.class).build())
+                .addException(type)
+                .addStatement("throw ($T) error", type);
+    }
+
+    /**
+     * Create add/remove/size API of the delegates. Updates are lock-free, array replaced by CAS.
+     *
+     * @param builder   instance of class specification builder
+     * @param arrayType type of the delegates array
+     */
+    protected void createDelegatesMethods(@NonNull final TypeSpec.Builder builder, @NonNull final ArrayTypeName arrayType) {
+        final ParameterSpec delegate = ParameterSpec.builder(common.superType, "delegate", Modifier.FINAL)
+                .addAnnotation(NonNull.class).build();
+
+        builder.addMethod(MethodSpec.methodBuilder("add")
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addParameter(delegate)
+                .beginControlFlow("for (; ; )")
+                .addStatement("final $T current = this.$L", arrayType, DELEGATES)
+                .addStatement("final $T next = $T.copyOf(current, current.length + 1)", arrayType, Arrays.class)
+                .addStatement("next[current.length] = delegate")
+                .addStatement("if ($L.compareAndSet(this, current, next)) return", UPDATER)
+                .endControlFlow()
+                .build());
+
+        builder.addMethod(MethodSpec.methodBuilder("remove")
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .returns(boolean.class)
+                .addParameter(delegate)
+                .beginControlFlow("for (; ; )")
+                .addStatement("final $T current = this.$L", arrayType, DELEGATES)
+                .addStatement("int index = -1")
+                .addStatement("for (int i = 0; i < current.length && index < 0; i++) if (current[i] == delegate) index = i")
+                .addStatement("if (index < 0) return false")
+                .addStatement("final $T next = $T.copyOf(current, current.length - 1)", arrayType, Arrays.class)
+                .addStatement("$T.arraycopy(current, index + 1, next, index, next.length - index)", System.class)
+                .addStatement("if ($L.compareAndSet(this, current, next)) return true", UPDATER)
+                .endControlFlow()
+                .build());
+
+        builder.addMethod(MethodSpec.methodBuilder("size")
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .returns(int.class)
+                .addStatement("return this.$L.length", DELEGATES)
+                .build());
+    }
+
+    /**
+     * Create predicate checked per delegate.
+     *
+     * @return instance of the method builder.
+     */
+    @NonNull
+    protected MethodSpec.Builder createPredicate() {
+        return MethodSpec.methodBuilder(CommonClassGenerator.PREDICATE)
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .returns(boolean.class)
+                .addParameter(ParameterSpec.builder(common.superType, "delegate", Modifier.FINAL)
+                        .addAnnotation(NonNull.class).build())
+                .addParameter(int.class, "methodId", Modifier.FINAL)
+                .addParameter(ParameterSpec.builder(String.class, "methodName", Modifier.FINAL)
+                        .addAnnotation(ClassName.bestGuess(CommonClassGenerator.METHODS))
+                        .addAnnotation(NonNull.class).build())
+                .addParameter(Object[].class, "args", Modifier.FINAL)
+                .varargs(true);
+    }
+
+    /**
+     * Create typed per-delegate hook of the method, by default allows the call. Arguments are passed as is,
+     * without packing and boxing.
+     *
+     * @param ms reference on the proxied method
+     * @return instance of the method builder.
+     * @throws Exception can fail during mimicing signature of the method
+     */
+    @NonNull
+    protected MethodSpec.Builder createHook(@NonNull final Symbol.MethodSymbol ms) throws Exception {
+        final MethodSpec.Builder builder = MethodSpec.methodBuilder(common.toHookName(ms.getSimpleName().toString()))
+                .addModifiers(Modifier.PUBLIC)
+                .returns(boolean.class)
+                .addParameter(ParameterSpec.builder(common.superType, "delegate", Modifier.FINAL)
+                        .addAnnotation(NonNull.class).build());
+
+        CommonClassGenerator.mimicParameters(builder, ms);
+        builder.addStatement("return true");
+
+        return builder;
+    }
+
+    /**
+     * Create reducer of results for methods with {@link AutoProxy.Multicast#REDUCE} policy.
+     *
+     * @return instance of the method builder.
+     */
+    @NonNull
+    protected MethodSpec.Builder createReduce() {
+        final TypeVariableName r = TypeVariableName.get("R", Object.class);
+
+        return MethodSpec.methodBuilder(REDUCE)
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .addTypeVariable(r)
+                .returns(r)
+                .addParameter(int.class, "methodId", Modifier.FINAL)
+                .addParameter(ParameterSpec.builder(String.class, "methodName", Modifier.FINAL)
+                        .addAnnotation(ClassName.bestGuess(CommonClassGenerator.METHODS))
+                        .addAnnotation(NonNull.class).build())
+                .addParameter(r, "accumulated", Modifier.FINAL)
+                .addParameter(r, "result", Modifier.FINAL);
+    }
+
+    /**
+     * Create reducer specialized for primitive return type. By default forwards call to {@link #createReduce()}
+     * method, override it for reducing without boxing.
+     *
+     * @param kind primitive return type
+     * @return instance of the method builder.
+     */
+    @NonNull
+    protected MethodSpec.Builder createPrimitiveReduce(@NonNull final TypeKind kind) {
+        final TypeName primitive = CommonClassGenerator.toPrimitiveType(kind);
+
+        return MethodSpec.methodBuilder(toReduceName(kind))
+                .addModifiers(Modifier.PUBLIC)
+                .returns(primitive)
+                .addParameter(int.class, "methodId", Modifier.FINAL)
+                .addParameter(ParameterSpec.builder(String.class, "methodName", Modifier.FINAL)
+                        .addAnnotation(ClassName.bestGuess(CommonClassGenerator.METHODS))
+                        .addAnnotation(NonNull.class).build())
+                .addParameter(primitive, "accumulated", Modifier.FINAL)
+                .addParameter(primitive, "result", Modifier.FINAL)
+                .addStatement("return $L(methodId, methodName, ($T) accumulated, ($T) result)", REDUCE,
+                        primitive.box(), primitive.box());
+    }
+
+    /**
+     * Compose name of reducer specialized for primitive type, e.g. `reduceInt`.
+     *
+     * @param kind primitive type kind
+     * @return name of the method
+     */
+    @NonNull
+    protected String toReduceName(@NonNull final TypeKind kind) {
+        final String primitive = CommonClassGenerator.toPrimitiveType(kind).toString();
+
+        return REDUCE + primitive.substring(0, 1).toUpperCase(Locale.US) + primitive.substring(1);
+    }
+
+    @NonNull
+    protected MethodSpec.Builder createMethod(@NonNull final Symbol.MethodSymbol ms,
+                                              @NonNull final ArrayTypeName arrayType) throws Exception {
+        final String methodName = ms.getSimpleName().toString();
+        final Type returnType = ms.getReturnType();
+        final boolean hasReturn = returnType.getKind() != TypeKind.VOID;
+        final String policy = extractPolicy(ms);
+
+        final MethodSpec.Builder builder = MethodSpec.methodBuilder(methodName)
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .returns(TypeName.get(returnType));
+
+        final StringBuilder arguments = CommonClassGenerator.mimicParameters(builder, ms);
+        CommonClassGenerator.mimicThrows(builder, ms);
+
+        final CodeBlock id = CodeBlock.of("$L.$L", CommonClassGenerator.METHODS, common.ordinals.get(ms));
+        final CodeBlock name = CodeBlock.of("$L.$L", CommonClassGenerator.METHODS, common.toConstantName(methodName));
+        final CodeBlock call = CodeBlock.of("delegate.$N($L)", methodName, arguments);
+        final boolean gated = common.isGated();
+        final boolean packed = !common.type.annotation.hooks() && arguments.length() > 0;
+
+        builder.addStatement("final $T delegates = this.$L", arrayType, DELEGATES);
+
+        // one gate decision for all delegates, predicate results of delegates are not remembered
+        if (gated) {
+            builder.addStatement("final $T gateState = this.$L.state()", MethodGate.State.class,
+                    CommonClassGenerator.GATE);
+            builder.addStatement("final int decision = gateState.decide($L)", id);
+            builder.beginControlFlow("if ($T.DENY == decision)", MethodGate.class);
+            common.createYield(builder, ms);
+            builder.endControlFlow();
+            builder.addStatement("final boolean ask = $T.ASK == decision", MethodGate.class);
+        }
+
+        // arguments packed on first predicate call, once for all delegates
+        if (packed) {
+            builder.addStatement("$T args = null", Object[].class);
+        }
+
+        final TypeName resultType = TypeName.get(returnType);
+        final boolean first = AutoProxy.Multicast.FIRST.equals(policy);
+
+        if (hasReturn && !first) {
+            builder.addStatement("$T result = $L", resultType, returnType.getKind() == TypeKind.BOOLEAN ? "false"
+                    : returnType.isPrimitive() ? "0" : "null");
+            builder.addStatement("boolean called = false");
+        }
+
+        // first failure of the delegates, re-thrown after the broadcast
+        builder.addStatement("$T failure = null", Throwable.class);
+
+        builder.beginControlFlow("for (int i = 0; i < delegates.length; i++)");
+        builder.addStatement("final $T delegate = delegates[i]", common.superType);
+
+        final String ask = gated ? "ask && " : "";
+        if (common.type.annotation.hooks()) {
+            builder.addStatement("if ($L!$L(delegate$L)) continue", ask, common.toHookName(methodName),
+                    (arguments.length() == 0 ? "" : ", ") + arguments);
+        } else if (!packed) {
+            builder.addStatement("if ($L!$L(delegate, $L, $L, NO_ARGS)) continue", ask, CommonClassGenerator.PREDICATE, id, name);
+        } else {
+            if (gated) builder.beginControlFlow("if (ask)");
+            builder.addStatement("if (null == args) args = new $T{$L}", Object[].class, arguments);
+            builder.addStatement("if (!$L(delegate, $L, $L, args)) continue", CommonClassGenerator.PREDICATE, id, name);
+            if (gated) builder.endControlFlow();
+        }
+
+        // failed delegate does not stop the broadcast
+        builder.beginControlFlow("try");
+
+        if (!hasReturn) {
+            builder.addStatement("$L", call);
+        } else if (first) {
+            builder.addStatement("return $L", call);
+        } else if (AutoProxy.Multicast.REDUCE.equals(policy)) {
+            final String reduce = returnType.isPrimitive() ? toReduceName(returnType.getKind()) : REDUCE;
+
+            builder.addStatement("final $T value = $L", resultType, call);
+            builder.addStatement("result = called ? $L($L, $L, result, value) : value", reduce, id, name);
+            builder.addStatement("called = true");
+        } else {
+            builder.addStatement("result = $L", call);
+            builder.addStatement("called = true");
+        }
+
+        builder.nextControlFlow("catch (final $T error)", Throwable.class);
+        builder.addStatement("if (null == failure) failure = error");
+        builder.endControlFlow();
+
+        builder.endControlFlow();
+
+        builder.addStatement("if (null != failure) throw $T.<$T>$L(failure)", multicastType(), RuntimeException.class, SNEAKY);
+
+        if (hasReturn) {
+            if (!first) {
+                builder.addStatement("if (called) return result");
+            }
+
+            // no delegate allowed the call
+            final Attribute.Compound yield = CommonClassGenerator.findYieldMethodAnnotation(ms);
+            if (null != yield) builder.addComment("" + yield);
+            common.createYieldPart(builder, returnType, yield);
+        }
+
+        return builder;
+    }
+
+    /**
+     * Extract result policy of the method.
+     *
+     * @param ms reference on the proxied method
+     * @return policy, {@link AutoProxy.Multicast#LAST} by default.
+     * @throws Exception can fail during annotation extraction
+     */
+    @NonNull
+    protected String extractPolicy(@NonNull final Symbol.MethodSymbol ms) throws Exception {
+        final Attribute.Compound multicast = CommonClassGenerator.findMethodAnnotation(ms, AutoProxy.Multicast.class);
+        if (null == multicast) return AutoProxy.Multicast.LAST;
+
+        final String policy = common.extractAnnotation(AutoProxy.Multicast.class, multicast).value();
+        if (AutoProxy.Multicast.FIRST.equals(policy) || AutoProxy.Multicast.LAST.equals(policy)
+                || AutoProxy.Multicast.REDUCE.equals(policy)) {
+            return policy;
+        }
+
+        final String message = "Unknown @AutoProxy.Multicast policy `" + policy + "`: " + ms;
+        throw common.reject(ms, message);
+    }
+}
@@ -0,0 +1,148 @@
+package com.olku.processors;
+
+import androidx.annotation.NonNull;
+
+import com.olku.runtime.Balancer;
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Type;
+
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+
+/**
+ * Pool variant generator: Pool_{Type} dispatches each call to one delegate of the pool selected by
+ * {@link Balancer} strategy. Dispatch path is lock-free, predicate and yield are shared with synchronous proxy.
+ */
+@SuppressWarnings("WeakerAccess")
+public class PoolClassGenerator {
+    /**
+     * Prefix of the pool class.
+     */
+    protected static final String POOL = "Pool_";
+    /**
+     * Name of the delegates member.
+     */
+    protected static final String DELEGATES = "delegates";
+    /**
+     * Name of the balancer member.
+     */
+    protected static final String BALANCER = "balancer";
+
+    /**
+     * Generator of the synchronous proxy, source of ordinals, predicates and yields.
+     */
+    protected final CommonClassGenerator common;
+
+    /**
+     * Main constructor.
+     *
+     * @param common reference on synchronous proxy generator.
+     */
+    public PoolClassGenerator(@NonNull final CommonClassGenerator common) {
+        this.common = common;
+    }
+
+    /**
+     * Compose pool class.
+     *
+     * @param filer target of the generated sources
+     * @throws Exception can fail in depth, allow raising of exception on top
+     */
+    public void compose(@NonNull final Filer filer) throws Exception {
+        JavaFile.builder(common.type.packageName.toString(), createClass().build()).build().writeTo(filer);
+    }
+
+    @NonNull
+    protected TypeSpec.Builder createClass() throws Exception {
+        final ArrayTypeName arrayType = ArrayTypeName.of(ClassName.get((TypeElement) common.type.element));
+
+        final TypeSpec.Builder builder = common.inheritSuperType(TypeSpec.classBuilder(POOL + common.type.flatClassName)
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT));
+
+        builder.addField(FieldSpec.builder(arrayType, DELEGATES, Modifier.PROTECTED, Modifier.FINAL).build());
+        builder.addField(FieldSpec.builder(Balancer.class, BALANCER, Modifier.PROTECTED, Modifier.FINAL).build());
+
+        builder.addMethod(MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(int.class, "strategy", Modifier.FINAL)
+                .addParameter(ParameterSpec.builder(arrayType, DELEGATES, Modifier.FINAL)
+                        .addAnnotation(NonNull.class).build())
+                .varargs(true)
+                .addStatement("this.$L = $N.clone()", DELEGATES, DELEGATES)
+                .addStatement("this.$L = new $T($N.length, strategy)", BALANCER, Balancer.class, DELEGATES)
+                .build());
+
+        // health flags and in-flight counters
+        builder.addMethod(MethodSpec.methodBuilder(BALANCER)
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addAnnotation(NonNull.class)
+                .returns(Balancer.class)
+                .addStatement("return this.$L", BALANCER)
+                .build());
+
+        // gate state checked by shared predicate check
+        common.createGate(builder);
+
+        if (common.type.annotation.hooks()) {
+            builder.addSuperinterface(common.hooksType());
+        } else {
+            builder.addMethod(common.createPredicate().build());
+            builder.addMethod(common.createOrdinalPredicate().build());
+        }
+
+        for (final Element method : common.type.methods) {
+            builder.addMethod(createMethod((Symbol.MethodSymbol) method).build());
+        }
+
+        common.createNamesOfMethods(builder);
+
+        return builder;
+    }
+
+    @NonNull
+    protected MethodSpec.Builder createMethod(@NonNull final Symbol.MethodSymbol ms) throws Exception {
+        final String methodName = ms.getSimpleName().toString();
+        final Type returnType = ms.getReturnType();
+
+        final MethodSpec.Builder builder = MethodSpec.methodBuilder(methodName)
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .returns(TypeName.get(returnType));
+
+        final StringBuilder arguments = CommonClassGenerator.mimicParameters(builder, ms);
+        CommonClassGenerator.mimicThrows(builder, ms);
+
+        common.createPredicateCheck(builder, ms, arguments);
+        common.createYield(builder, ms);
+        builder.endControlFlow();
+
+        builder.addStatement("final int index = this.$L.acquire()", BALANCER);
+
+        // no healthy delegates
+        builder.beginControlFlow("if (index < 0)");
+        common.createYield(builder, ms);
+        builder.endControlFlow();
+
+        builder.beginControlFlow("try");
+        if (returnType.getKind() == TypeKind.VOID) {
+            builder.addStatement("this.$L[index].$N($L)", DELEGATES, methodName, arguments);
+        } else {
+            builder.addStatement("return this.$L[index].$N($L)", DELEGATES, methodName, arguments);
+        }
+        builder.nextControlFlow("finally");
+        builder.addStatement("this.$L.release(index)", BALANCER);
+        builder.endControlFlow();
+
+        return builder;
+    }
+}
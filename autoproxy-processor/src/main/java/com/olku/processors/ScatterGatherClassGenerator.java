@@ -0,0 +1,194 @@
+package com.olku.processors;
+
+import androidx.annotation.NonNull;
+
+import com.olku.annotations.AutoProxy;
+import com.olku.runtime.ScatterGather;
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.sun.tools.javac.code.Attribute;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Type;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+
+/**
+ * Scatter-gather variant generator: ScatterGather_{Type} calls each method on all delegates in parallel on
+ * provided executor and combines results by {@link AutoProxy.Reduce} strategy. Predicate and yield are
+ * evaluated once per call on the caller thread.
+ */
+@SuppressWarnings("WeakerAccess")
+public class ScatterGatherClassGenerator {
+    /**
+     * Prefix of the scatter-gather class.
+     */
+    protected static final String SCATTER_GATHER = "ScatterGather_";
+    /**
+     * Name of the executor member.
+     */
+    protected static final String EXECUTOR = "executor";
+    /**
+     * Name of the delegates member.
+     */
+    protected static final String DELEGATES = "delegates";
+
+    /**
+     * Generator of the synchronous proxy, source of ordinals, predicates and yields.
+     */
+    protected final CommonClassGenerator common;
+
+    /**
+     * Main constructor.
+     *
+     * @param common reference on synchronous proxy generator.
+     */
+    public ScatterGatherClassGenerator(@NonNull final CommonClassGenerator common) {
+        this.common = common;
+    }
+
+    /**
+     * Compose scatter-gather class.
+     *
+     * @param filer target of the generated sources
+     * @throws Exception can fail in depth, allow raising of exception on top
+     */
+    public void compose(@NonNull final Filer filer) throws Exception {
+        JavaFile.builder(common.type.packageName.toString(), createClass().build()).build().writeTo(filer);
+    }
+
+    @NonNull
+    protected TypeSpec.Builder createClass() throws Exception {
+        final ArrayTypeName arrayType = ArrayTypeName.of(ClassName.get((TypeElement) common.type.element));
+
+        final TypeSpec.Builder builder = common.inheritSuperType(TypeSpec.classBuilder(SCATTER_GATHER + common.type.flatClassName)
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT));
+
+        builder.addField(FieldSpec.builder(Executor.class, EXECUTOR, Modifier.PROTECTED, Modifier.FINAL).build());
+        builder.addField(FieldSpec.builder(arrayType, DELEGATES, Modifier.PROTECTED, Modifier.FINAL).build());
+
+        builder.addMethod(MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(ParameterSpec.builder(Executor.class, EXECUTOR, Modifier.FINAL)
+                        .addAnnotation(NonNull.class).build())
+                .addParameter(ParameterSpec.builder(arrayType, DELEGATES, Modifier.FINAL)
+                        .addAnnotation(NonNull.class).build())
+                .varargs(true)
+                .addStatement("this.$L = $N", EXECUTOR, EXECUTOR)
+                .addStatement("this.$L = $N.clone()", DELEGATES, DELEGATES)
+                .build());
+
+        // gate state checked by shared predicate check
+        common.createGate(builder);
+
+        if (common.type.annotation.hooks()) {
+            builder.addSuperinterface(common.hooksType());
+        } else {
+            builder.addMethod(common.createPredicate().build());
+            builder.addMethod(common.createOrdinalPredicate().build());
+        }
+
+        boolean reduced = false;
+        for (final Element method : common.type.methods) {
+            final Symbol.MethodSymbol ms = (Symbol.MethodSymbol) method;
+
+            builder.addMethod(createMethod(ms).build());
+            reduced |= ms.getReturnType().getKind() != TypeKind.VOID
+                    && AutoProxy.Reduce.ALL.equals(extractReduce(ms).value());
+        }
+
+        // same reducer contract as in multicast variant
+        if (reduced) {
+            builder.addMethod(new MulticastClassGenerator(common).createReduce().build());
+        }
+
+        common.createNamesOfMethods(builder);
+
+        return builder;
+    }
+
+    @NonNull
+    protected MethodSpec.Builder createMethod(@NonNull final Symbol.MethodSymbol ms) throws Exception {
+        final String methodName = ms.getSimpleName().toString();
+        final Type returnType = ms.getReturnType();
+        final boolean hasReturn = returnType.getKind() != TypeKind.VOID;
+        final AutoProxy.Reduce reduce = extractReduce(ms);
+        final boolean first = AutoProxy.Reduce.FIRST.equals(reduce.value());
+        final TypeName boxed = hasReturn ? TypeName.get(returnType).box() : ClassName.get(Void.class);
+
+        final MethodSpec.Builder builder = MethodSpec.methodBuilder(methodName)
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .returns(TypeName.get(returnType));
+
+        final StringBuilder arguments = CommonClassGenerator.mimicParameters(builder, ms);
+        CommonClassGenerator.mimicThrows(builder, ms);
+
+        common.createPredicateCheck(builder, ms, arguments);
+        common.createYield(builder, ms);
+        builder.endControlFlow();
+
+        final CodeBlock call = hasReturn
+                ? CodeBlock.of("delegate -> delegate.$N($L)", methodName, arguments)
+                : CodeBlock.of("delegate -> {\n$>delegate.$N($L);\nreturn null;\n$<}", methodName, arguments);
+
+        builder.addStatement("final $T results = $T.gather(this.$L, this.$L, $L, $LL, $L)",
+                ParameterizedTypeName.get(ClassName.get(List.class), boxed), ScatterGather.class,
+                EXECUTOR, DELEGATES, call, reduce.deadlineMs(), first);
+
+        if (!hasReturn) return builder;
+
+        // deadline without results
+        builder.beginControlFlow("if (results.isEmpty())");
+        common.createYield(builder, ms);
+        builder.endControlFlow();
+
+        if (first) {
+            builder.addStatement("return results.get(0)");
+        } else {
+            builder.addStatement("$T result = results.get(0)", boxed);
+            builder.beginControlFlow("for (int i = 1, len = results.size(); i < len; i++)");
+            builder.addStatement("result = $L($L.$L, $L.$L, result, results.get(i))", MulticastClassGenerator.REDUCE,
+                    CommonClassGenerator.METHODS, common.ordinals.get(ms),
+                    CommonClassGenerator.METHODS, common.toConstantName(methodName));
+            builder.endControlFlow();
+            builder.addStatement("return result");
+        }
+
+        return builder;
+    }
+
+    /**
+     * Extract results strategy of the method.
+     *
+     * @param ms reference on the proxied method
+     * @return reduce configuration, {@link AutoProxy.Reduce#ALL} without deadline by default.
+     * @throws Exception can fail during annotation extraction
+     */
+    @NonNull
+    protected AutoProxy.Reduce extractReduce(@NonNull final Symbol.MethodSymbol ms) throws Exception {
+        final Attribute.Compound reduce = CommonClassGenerator.findMethodAnnotation(ms, AutoProxy.Reduce.class);
+
+        final AutoProxy.Reduce annotation = common.extractAnnotation(AutoProxy.Reduce.class, reduce);
+
+        if (AutoProxy.Reduce.FIRST.equals(annotation.value()) || AutoProxy.Reduce.ALL.equals(annotation.value())) {
+            return annotation;
+        }
+
+        final String message = "Unknown @AutoProxy.Reduce strategy `" + annotation.value() + "`: " + ms;
+        throw common.reject(ms, message);
+    }
+}
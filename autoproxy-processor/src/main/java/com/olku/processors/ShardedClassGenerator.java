@@ -0,0 +1,164 @@
+package com.olku.processors;
+
+import androidx.annotation.NonNull;
+
+import com.olku.annotations.AutoProxy;
+import com.olku.runtime.ShardRouter;
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.sun.tools.javac.code.Attribute;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Type;
+
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+
+/**
+ * Sharded variant generator: Sharded_{Type} routes each call to the delegate that owns value of
+ * {@link AutoProxy.ShardKey} argument, so state of each shard is touched by calls of own keys only.
+ */
+@SuppressWarnings("WeakerAccess")
+public class ShardedClassGenerator {
+    /**
+     * Prefix of the sharded class.
+     */
+    protected static final String SHARDED = "Sharded_";
+    /**
+     * Name of the delegates member.
+     */
+    protected static final String DELEGATES = "delegates";
+    /**
+     * Name of the router member.
+     */
+    protected static final String ROUTER = "router";
+
+    /**
+     * Generator of the synchronous proxy, source of ordinals, predicates and yields.
+     */
+    protected final CommonClassGenerator common;
+
+    /**
+     * Main constructor.
+     *
+     * @param common reference on synchronous proxy generator.
+     */
+    public ShardedClassGenerator(@NonNull final CommonClassGenerator common) {
+        this.common = common;
+    }
+
+    /**
+     * Compose sharded class.
+     *
+     * @param filer target of the generated sources
+     * @throws Exception can fail in depth, allow raising of exception on top
+     */
+    public void compose(@NonNull final Filer filer) throws Exception {
+        JavaFile.builder(common.type.packageName.toString(), createClass().build()).build().writeTo(filer);
+    }
+
+    @NonNull
+    protected TypeSpec.Builder createClass() throws Exception {
+        final ArrayTypeName arrayType = ArrayTypeName.of(ClassName.get((TypeElement) common.type.element));
+
+        final TypeSpec.Builder builder = common.inheritSuperType(TypeSpec.classBuilder(SHARDED + common.type.flatClassName)
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT));
+
+        builder.addField(FieldSpec.builder(arrayType, DELEGATES, Modifier.PROTECTED, Modifier.FINAL).build());
+        builder.addField(FieldSpec.builder(ShardRouter.class, ROUTER, Modifier.PROTECTED, Modifier.FINAL).build());
+
+        builder.addMethod(MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(int.class, "strategy", Modifier.FINAL)
+                .addParameter(ParameterSpec.builder(arrayType, DELEGATES, Modifier.FINAL)
+                        .addAnnotation(NonNull.class).build())
+                .varargs(true)
+                .addStatement("this.$L = $N.clone()", DELEGATES, DELEGATES)
+                .addStatement("this.$L = new $T($N.length, strategy)", ROUTER, ShardRouter.class, DELEGATES)
+                .build());
+
+        // gate state checked by shared predicate check
+        common.createGate(builder);
+
+        if (common.type.annotation.hooks()) {
+            builder.addSuperinterface(common.hooksType());
+        } else {
+            builder.addMethod(common.createPredicate().build());
+            builder.addMethod(common.createOrdinalPredicate().build());
+        }
+
+        for (final Element method : common.type.methods) {
+            builder.addMethod(createMethod((Symbol.MethodSymbol) method).build());
+        }
+
+        common.createNamesOfMethods(builder);
+
+        return builder;
+    }
+
+    @NonNull
+    protected MethodSpec.Builder createMethod(@NonNull final Symbol.MethodSymbol ms) throws Exception {
+        final String methodName = ms.getSimpleName().toString();
+        final Type returnType = ms.getReturnType();
+        final Symbol.VarSymbol key = findShardKey(ms);
+
+        final MethodSpec.Builder builder = MethodSpec.methodBuilder(methodName)
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .returns(TypeName.get(returnType));
+
+        final StringBuilder arguments = CommonClassGenerator.mimicParameters(builder, ms);
+        CommonClassGenerator.mimicThrows(builder, ms);
+
+        common.createPredicateCheck(builder, ms, arguments);
+        common.createYield(builder, ms);
+        builder.endControlFlow();
+
+        // overloads of router select primitive hashing for int/long keys
+        if (returnType.getKind() == TypeKind.VOID) {
+            builder.addStatement("this.$L[this.$L.shardOf($N)].$N($L)", DELEGATES, ROUTER,
+                    CommonClassGenerator.toParameterName(ms, key), methodName, arguments);
+        } else {
+            builder.addStatement("return this.$L[this.$L.shardOf($N)].$N($L)", DELEGATES, ROUTER,
+                    CommonClassGenerator.toParameterName(ms, key), methodName, arguments);
+        }
+
+        return builder;
+    }
+
+    /**
+     * Find shard key parameter of the method.
+     *
+     * @param ms reference on the proxied method
+     * @return parameter annotated by {@link AutoProxy.ShardKey}.
+     * @throws Exception method without or with several shard keys
+     */
+    @NonNull
+    protected Symbol.VarSymbol findShardKey(@NonNull final Symbol.MethodSymbol ms) throws Exception {
+        Symbol.VarSymbol key = null;
+        int found = 0;
+
+        for (final Symbol.VarSymbol param : ms.getParameters()) {
+            if (!param.hasAnnotations()) continue;
+
+            for (final Attribute.Compound am : param.getAnnotationMirrors()) {
+                if (!((Symbol.ClassSymbol) am.type.tsym).flatName().contentEquals(AutoProxy.ShardKey.class.getName())) continue;
+
+                key = param;
+                found++;
+            }
+        }
+
+        if (1 == found) return key;
+
+        final String message = "Sharded proxy expects exactly one @AutoProxy.ShardKey parameter: " + ms;
+        throw common.reject(ms, message);
+    }
+}
@@ -8,6 +8,8 @@ import com.sun.tools.javac.code.Type;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -134,6 +136,17 @@ public class TypeProcessor {
                 methods.add(subElement);
             }
         }
+
+        // stable order of methods: by name, than by signature
+        Collections.sort(methods, new Comparator<Element>() {
+            @Override
+            public int compare(final Element left, final Element right) {
+                final int byName = left.getSimpleName().toString().compareTo(right.getSimpleName().toString());
+                if (0 != byName) return byName;
+
+                return left.asType().toString().compareTo(right.asType().toString());
+            }
+        });
     }
 
     @NonNull
@@ -237,6 +250,20 @@ public class TypeProcessor {
         // default values of Yield
         final Map<String, Object> map = new HashMap<>();
         map.put("value", AutoProxy.Default.class);
+        map.put("hooks", false);
+        map.put("gate", false);
+        map.put("cachePredicate", false);
+        map.put("async", false);
+        map.put("actor", false);
+        map.put("metrics", false);
+        map.put("flightRecorder", false);
+        map.put("rebindable", false);
+        map.put("lazy", false);
+        map.put("weak", false);
+        map.put("multicast", false);
+        map.put("scatterGather", false);
+        map.put("pool", false);
+        map.put("sharded", false);
 
         // overrides
         if (null != annotation) {
@@ -0,0 +1,121 @@
+package com.olku.runtime;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Lock-free selection of delegate from the pool. In-flight calls of each delegate counted by striped
+ * counters, so contended pool does not serialize on one cache line. Unhealthy delegates are skipped.
+ */
+public final class Balancer {
+    /** Delegates selected in turn. */
+    public static final int ROUND_ROBIN = 0;
+    /** Less loaded of two random delegates (power of two choices). */
+    public static final int LEAST_LOADED = 1;
+    /** Each thread sticks to own delegate, cache-friendly for thread-confined delegates. */
+    public static final int STICKY = 2;
+
+    private final int size;
+    private final int strategy;
+    private final StripedCounter[] inFlight;
+    /** 1 - healthy, 0 - skipped by selection. */
+    private final AtomicIntegerArray healthy;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * Main constructor.
+     *
+     * @param size     number of delegates
+     * @param strategy selection strategy: {@link #ROUND_ROBIN}, {@link #LEAST_LOADED} or {@link #STICKY}
+     */
+    public Balancer(final int size, final int strategy) {
+        if (size < 1 || strategy < ROUND_ROBIN || strategy > STICKY) {
+            throw new IllegalArgumentException("size: " + size + ", strategy: " + strategy);
+        }
+
+        this.size = size;
+        this.strategy = strategy;
+        this.inFlight = new StripedCounter[size];
+        this.healthy = new AtomicIntegerArray(size);
+
+        for (int i = 0; i < size; i++) {
+            inFlight[i] = new StripedCounter();
+            healthy.set(i, 1);
+        }
+    }
+
+    /**
+     * Select delegate for the call. Selected delegate must be released by {@link #release(int)}.
+     *
+     * @return index of the delegate, -1 - no healthy delegates.
+     */
+    public int acquire() {
+        final int index = select();
+        if (index >= 0) inFlight[index].increment();
+
+        return index;
+    }
+
+    /** Complete the call of delegate selected by {@link #acquire()}. */
+    public void release(final int index) {
+        inFlight[index].decrement();
+    }
+
+    /** Include delegate into selection or skip it, e.g. by results of health check. */
+    public void setHealthy(final int index, final boolean value) {
+        healthy.set(index, value ? 1 : 0);
+    }
+
+    /** Is delegate included into selection. */
+    public boolean isHealthy(final int index) {
+        return 1 == healthy.get(index);
+    }
+
+    /** Number of calls in progress on delegate. */
+    public long inFlight(final int index) {
+        return inFlight[index].sum();
+    }
+
+    /** Number of delegates. */
+    public int size() {
+        return size;
+    }
+
+    //region Implementation
+    private int select() {
+        final int start;
+
+        if (LEAST_LOADED == strategy && size > 1) {
+            // cheap per-call randomness without ThreadLocalRandom (Android API 21)
+            final long random = mix(System.nanoTime() ^ Thread.currentThread().getId());
+            final int first = (int) (random % size);
+            final int second = (first + 1 + (int) ((random >>> 31) % (size - 1))) % size;
+
+            if (isHealthy(first) && isHealthy(second)) {
+                return inFlight[first].sum() <= inFlight[second].sum() ? first : second;
+            }
+
+            start = isHealthy(second) ? second : first;
+        } else if (STICKY == strategy) {
+            start = (int) (mix(Thread.currentThread().getId()) % size);
+        } else {
+            start = (next.getAndIncrement() & Integer.MAX_VALUE) % size;
+        }
+
+        // first healthy delegate starting from selected one
+        for (int i = 0; i < size; i++) {
+            final int index = (start + i) % size;
+            if (isHealthy(index)) return index;
+        }
+
+        return -1;
+    }
+
+    private static long mix(final long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+
+        return h & Long.MAX_VALUE;
+    }
+    //endregion
+}
@@ -0,0 +1,130 @@
+package com.olku.runtime;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Batching of single item calls. Items accumulated in reusable buffer and delivered to sink when
+ * batch is full, when delay of the first item expires or on explicit {@link #flush()}. Two buffers
+ * are swapped on delivery, so producers never wait for the sink unless batch is full again.
+ *
+ * @param <T> type of the item
+ */
+public final class Batcher<T> {
+    /** Receiver of the batches. */
+    public interface Sink<T> {
+        /**
+         * Deliver batch. List is reused after the call, copy it if items are needed later.
+         *
+         * @param items accumulated items
+         */
+        void accept(@NonNull final List<T> items);
+    }
+
+    private final int maxSize;
+    private final long maxDelayMs;
+    private final Sink<T> sink;
+
+    /** Guard of the buffers. */
+    private final Object lock = new Object();
+    /** Serialize deliveries, only one batch in flight. */
+    private final Object delivery = new Object();
+
+    /** Buffer that accumulates items. */
+    private ArrayList<T> active;
+    /** Buffer ready for swap, NULL during delivery. */
+    private ArrayList<T> spare;
+    /** Is delayed delivery scheduled. */
+    private boolean scheduled;
+
+    /** Delayed delivery. */
+    private final Runnable timer = new Runnable() {
+        @Override
+        public void run() {
+            flush();
+        }
+    };
+
+    /**
+     * Main constructor.
+     *
+     * @param maxSize    maximum number of items in one batch
+     * @param maxDelayMs maximum delay of the first item in batch, in milliseconds
+     * @param sink       receiver of the batches
+     */
+    public Batcher(final int maxSize, final long maxDelayMs, @NonNull final Sink<T> sink) {
+        this.maxSize = Math.max(1, maxSize);
+        this.maxDelayMs = maxDelayMs;
+        this.sink = sink;
+
+        this.active = new ArrayList<>(this.maxSize);
+        this.spare = new ArrayList<>(this.maxSize);
+    }
+
+    /**
+     * Add item to the batch. Full batch delivered on caller thread.
+     *
+     * @param item      item to add
+     * @param scheduler scheduler used for delayed delivery
+     */
+    public void add(final T item, @NonNull final Scheduler scheduler) {
+        final boolean full;
+        final boolean schedule;
+
+        synchronized (lock) {
+            active.add(item);
+
+            full = active.size() >= maxSize;
+            schedule = !full && !scheduled;
+            if (schedule) scheduled = true;
+        }
+
+        if (full) {
+            flush();
+        } else if (schedule) {
+            scheduler.schedule(timer, maxDelayMs);
+        }
+    }
+
+    /**
+     * Deliver accumulated items to sink on caller thread.
+     *
+     * @return number of delivered items.
+     */
+    public int flush() {
+        synchronized (delivery) {
+            final ArrayList<T> batch;
+
+            synchronized (lock) {
+                if (active.isEmpty()) return 0;
+
+                batch = active;
+                active = spare;
+                spare = null;
+                scheduled = false;
+            }
+
+            final int count = batch.size();
+            try {
+                sink.accept(batch);
+            } finally {
+                batch.clear();
+
+                synchronized (lock) {
+                    spare = batch;
+                }
+            }
+
+            return count;
+        }
+    }
+
+    /** Get number of not delivered items. */
+    public int pending() {
+        synchronized (lock) {
+            return active.size();
+        }
+    }
+}
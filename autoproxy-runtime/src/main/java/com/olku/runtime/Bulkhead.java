@@ -0,0 +1,66 @@
+package com.olku.runtime;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Non-blocking limit of concurrent calls. Permits are taken by CAS on one counter, caller that does not
+ * get a permit fails fast instead of waiting. Counter is not striped: exact limit requires one point of
+ * decision, full bulkhead rejects by plain read without writing to the contended line.
+ */
+public final class Bulkhead {
+    private static final AtomicIntegerFieldUpdater<Bulkhead> ACTIVE =
+            AtomicIntegerFieldUpdater.newUpdater(Bulkhead.class, "active");
+
+    private final int maxConcurrent;
+    private final StripedCounter rejected = new StripedCounter();
+
+    /** Number of calls in progress. */
+    private volatile int active;
+
+    /**
+     * Main constructor.
+     *
+     * @param maxConcurrent maximum number of concurrent calls
+     */
+    public Bulkhead(final int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    /**
+     * Take permit if available.
+     *
+     * @return TRUE - permit taken, release it after the call, otherwise FALSE.
+     */
+    public boolean tryAcquire() {
+        for (; ; ) {
+            final int current = active;
+
+            if (current >= maxConcurrent) {
+                rejected.increment();
+                return false;
+            }
+
+            if (ACTIVE.compareAndSet(this, current, current + 1)) return true;
+        }
+    }
+
+    /** Return permit taken by {@link #tryAcquire()}. */
+    public void release() {
+        ACTIVE.decrementAndGet(this);
+    }
+
+    /** Number of calls in progress. */
+    public int active() {
+        return active;
+    }
+
+    /** Maximum number of concurrent calls. */
+    public int maxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /** Number of calls rejected because of limit. */
+    public long rejected() {
+        return rejected.sum();
+    }
+}
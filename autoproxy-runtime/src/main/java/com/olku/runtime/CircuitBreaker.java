@@ -0,0 +1,162 @@
+package com.olku.runtime;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Lock-free circuit breaker over sliding window of the last calls outcomes. Opens when failures in full
+ * window reach ratio, rejects calls while open, after open time allows one probe call (half-open) which
+ * closes or re-opens the circuit. Each state change installs new generation, allowed call receives the
+ * generation that admitted it and reports outcome with it: outcomes of the calls admitted by replaced
+ * generation are ignored, only the probe call moves circuit out of half-open state.
+ */
+public final class CircuitBreaker {
+    /** Calls are allowed, outcomes recorded. */
+    public static final int CLOSED = 0;
+    /** Calls are rejected. */
+    public static final int OPEN = 1;
+    /** One probe call is in progress, other calls are rejected. */
+    public static final int HALF_OPEN = 2;
+
+    private static final AtomicReferenceFieldUpdater<CircuitBreaker, Generation> WINDOW =
+            AtomicReferenceFieldUpdater.newUpdater(CircuitBreaker.class, Generation.class, "window");
+
+    private static final int SUCCESS = 0;
+    private static final int FAILURE = 1;
+
+    /** Listener of the circuit state changes. */
+    public interface Listener {
+        /** Called by thread that changed the state. */
+        void onStateChanged(int from, int to);
+    }
+
+    /**
+     * Generation of the circuit: state, time of opening and window of outcomes recorded in CLOSED state.
+     * Returned by {@link #allow(long)} as a ticket of the allowed call.
+     */
+    public static final class Generation {
+        final int state;
+        final long openedAt;
+        final AtomicIntegerArray outcomes;
+        final AtomicLong calls = new AtomicLong();
+        final AtomicInteger failures = new AtomicInteger();
+
+        Generation(final int state, final long openedAt, final int length) {
+            this.state = state;
+            this.openedAt = openedAt;
+            this.outcomes = CLOSED == state ? new AtomicIntegerArray(length) : null;
+        }
+    }
+
+    private final int length;
+    private final int threshold;
+    private final long openNs;
+    private final long slowNs;
+    private final Listener listener;
+    private final StripedCounter rejected = new StripedCounter();
+
+    /** Current generation, replaced by CAS on each state change. */
+    private volatile Generation window;
+
+    /**
+     * Main constructor.
+     *
+     * @param failureRatio ratio of failed calls in window that opens circuit, (0..1]
+     * @param window       number of the last calls in sliding window
+     * @param openMs       time in open state before probe call
+     * @param slowMs       calls longer than this time count as failures, 0 - disabled
+     * @param listener     listener of state changes
+     */
+    public CircuitBreaker(final double failureRatio, final int window, final long openMs, final long slowMs,
+                          @Nullable final Listener listener) {
+        if (!(failureRatio > 0 && failureRatio <= 1) || window < 1 || openMs < 0 || slowMs < 0) {
+            throw new IllegalArgumentException("ratio: " + failureRatio + ", window: " + window
+                    + ", openMs: " + openMs + ", slowMs: " + slowMs);
+        }
+
+        this.length = window;
+        this.window = new Generation(CLOSED, 0, window);
+        this.threshold = Math.max(1, (int) Math.ceil(failureRatio * window));
+        this.openNs = TimeUnit.MILLISECONDS.toNanos(openMs);
+        this.slowNs = TimeUnit.MILLISECONDS.toNanos(slowMs);
+        this.listener = listener;
+    }
+
+    /**
+     * Check is call allowed. Allowed call must be reported by {@link #complete(Generation, long, long, boolean)}.
+     *
+     * @param now current monotonic time in nanoseconds, see {@link Clock#nanoTime()}
+     * @return generation that admitted the call, NULL - call rejected.
+     */
+    @Nullable
+    public Generation allow(final long now) {
+        final Generation current = window;
+
+        if (CLOSED == current.state) return current;
+
+        // only one caller becomes probe and owns half-open generation
+        if (OPEN == current.state && now - current.openedAt >= openNs) {
+            final Generation probe = new Generation(HALF_OPEN, current.openedAt, length);
+            if (transit(current, probe)) return probe;
+        }
+
+        rejected.increment();
+        return null;
+    }
+
+    /**
+     * Report outcome of the allowed call. Outcome of the call admitted by replaced generation is ignored.
+     *
+     * @param admitted generation returned by {@link #allow(long)}
+     * @param started  time of the call start
+     * @param now      current monotonic time
+     * @param failed   call raised exception
+     */
+    public void complete(@NonNull final Generation admitted, final long started, final long now, final boolean failed) {
+        final boolean failure = failed || (slowNs > 0 && now - started > slowNs);
+
+        if (HALF_OPEN == admitted.state) {
+            // probe call, window starts empty after closing
+            transit(admitted, failure ? new Generation(OPEN, now, length) : new Generation(CLOSED, 0, length));
+        } else if (admitted == window) {
+            // outcome of the call that overlaps opening goes to the replaced generation
+            final int outcome = failure ? FAILURE : SUCCESS;
+            final long index = admitted.calls.getAndIncrement();
+            final int previous = admitted.outcomes.getAndSet((int) (index % length), outcome);
+            final int total = admitted.failures.addAndGet(outcome - previous);
+
+            if (index + 1 >= length && total >= threshold) transit(admitted, new Generation(OPEN, now, length));
+        }
+    }
+
+    /** Current state: {@link #CLOSED}, {@link #OPEN} or {@link #HALF_OPEN}. */
+    public int state() {
+        return window.state;
+    }
+
+    /** Number of failures in current window, concurrent completions on the same slot may lag it for a moment. */
+    public int failures() {
+        return Math.max(0, window.failures.get());
+    }
+
+    /** Number of calls rejected by open circuit. */
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    //region Implementation
+    private boolean transit(final Generation from, final Generation to) {
+        if (!WINDOW.compareAndSet(this, from, to)) return false;
+
+        if (null != listener) listener.onStateChanged(from.state, to.state);
+
+        return true;
+    }
+    //endregion
+}
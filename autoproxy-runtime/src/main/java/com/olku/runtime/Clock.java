@@ -0,0 +1,15 @@
+package com.olku.runtime;
+
+/** Source of monotonic time. Injectable for deterministic tests, see {@link ManualClock}. */
+public interface Clock {
+    /** System monotonic clock. */
+    Clock SYSTEM = new Clock() {
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+    };
+
+    /** Current monotonic time in nanoseconds. */
+    long nanoTime();
+}
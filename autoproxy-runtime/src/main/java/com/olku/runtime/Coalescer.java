@@ -0,0 +1,71 @@
+package com.olku.runtime;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Coalescing of bursty calls. First call opens a window, at the end of window only the latest
+ * call is delivered on scheduler thread. Lock-free, one instance per proxied method. Proxy replays
+ * delivered call through own method, {@link #isDelivering()} tells it to call inner instance.
+ */
+public final class Coalescer {
+    /** Window duration in milliseconds. */
+    private final long windowMs;
+    /** The latest call in window. */
+    private final AtomicReference<Runnable> latest = new AtomicReference<>();
+    /** Is delivery scheduled. */
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    /** Thread that delivers the latest call, NULL - no delivery in progress. */
+    private volatile Thread deliverer;
+    /** Delivery of the latest call. */
+    private final Runnable deliver = new Runnable() {
+        @Override
+        public void run() {
+            scheduled.set(false);
+
+            final Runnable call = latest.getAndSet(null);
+            if (null == call) return;
+
+            deliverer = Thread.currentThread();
+            try {
+                call.run();
+            } finally {
+                deliverer = null;
+            }
+        }
+    };
+
+    /**
+     * Main constructor.
+     *
+     * @param windowMs coalescing window in milliseconds
+     */
+    public Coalescer(final long windowMs) {
+        this.windowMs = windowMs;
+    }
+
+    /**
+     * Submit call. Replaces not delivered call of the current window.
+     *
+     * @param call      call to deliver
+     * @param scheduler scheduler used for delivery
+     */
+    public void submit(@NonNull final Runnable call, @NonNull final Scheduler scheduler) {
+        latest.set(call);
+
+        if (scheduled.compareAndSet(false, true)) {
+            scheduler.schedule(deliver, windowMs);
+        }
+    }
+
+    /**
+     * Is current thread delivering the latest call of the window.
+     *
+     * @return TRUE - call should go to inner instance, otherwise FALSE - call should be submitted.
+     */
+    public boolean isDelivering() {
+        return Thread.currentThread() == deliverer;
+    }
+}
@@ -0,0 +1,125 @@
+package com.olku.runtime;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Calls with deadline: call executed on provided executor, caller waits not longer than timeout. Deadline
+ * of the call is propagated to the executing thread, so nested calls with deadline cannot outlive it.
+ */
+public final class Deadline {
+    /** Result of the call that did not complete in time. */
+    public static final Object TIMEOUT = new Object() {
+        @Override
+        public String toString() {
+            return "TIMEOUT";
+        }
+    };
+
+    /** Deadline of the current thread: [0] - is deadline set (0/1), [1] - deadline in nanoseconds. */
+    private static final ThreadLocal<long[]> CURRENT = new ThreadLocal<long[]>() {
+        @Override
+        protected long[] initialValue() {
+            return new long[2];
+        }
+    };
+
+    private Deadline() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Remaining time of the current thread deadline.
+     *
+     * @return nanoseconds till deadline, {@link Long#MAX_VALUE} - thread has no deadline.
+     */
+    public static long remainingNanos() {
+        final long[] current = CURRENT.get();
+
+        return 0 == current[0] ? Long.MAX_VALUE : current[1] - System.nanoTime();
+    }
+
+    /**
+     * Execute call on executor and wait for result till timeout or inherited deadline, whichever is earlier.
+     * Call that did not complete in time is canceled with interruption. Exceptions of the call re-thrown as is.
+     *
+     * @param executor  executor of the call
+     * @param call      call to execute
+     * @param timeoutMs timeout of the call
+     * @return result of the call or {@link #TIMEOUT}.
+     */
+    public static Object call(@NonNull final Executor executor, @NonNull final Callable<?> call, final long timeoutMs) {
+        final long now = System.nanoTime();
+        final long remaining = Math.min(TimeUnit.MILLISECONDS.toNanos(timeoutMs), remainingNanos());
+
+        // inherited deadline already passed, do not start the call
+        if (remaining <= 0) return TIMEOUT;
+
+        final long deadline = now + remaining;
+        final FutureTask<Object> task = new FutureTask<>(new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                final long[] current = CURRENT.get();
+                final long set = current[0], previous = current[1];
+
+                current[0] = 1;
+                current[1] = deadline;
+                try {
+                    return call.call();
+                } finally {
+                    current[0] = set;
+                    current[1] = previous;
+                }
+            }
+        });
+
+        executor.execute(task);
+
+        try {
+            return task.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (final TimeoutException ignored) {
+            task.cancel(true);
+            return TIMEOUT;
+        } catch (final ExecutionException ex) {
+            throw Deadline.<RuntimeException>sneaky(ex.getCause());
+        } catch (final InterruptedException ex) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException(ex);
+        }
+    }
+
+    /** Shared executor of calls with deadline, daemon threads created on demand. Created on first use. */
+    @NonNull
+    public static Executor shared() {
+        return Shared.INSTANCE;
+    }
+
+    //region Implementation
+    @SuppressWarnings("unchecked")
+    private static <T extends Throwable> T sneaky(@NonNull final Throwable error) throws T {
+        throw (T) error;
+    }
+
+    private static final class Shared {
+        /* package */ static final ExecutorService INSTANCE = Executors.newCachedThreadPool(new ThreadFactory() {
+            @Override
+            public Thread newThread(@NonNull final Runnable r) {
+                final Thread thread = new Thread(r, "autoproxy-deadline");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+    //endregion
+}
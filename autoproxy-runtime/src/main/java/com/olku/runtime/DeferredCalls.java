@@ -0,0 +1,93 @@
+package com.olku.runtime;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Deferred calls of proxied methods. Preallocated slot per method ordinal, so calls are coalesced:
+ * last write wins and storage never grows over number of methods. Slot keeps the call and its sequence
+ * in parallel arrays, defer does not allocate anything except the call itself. Replay keeps order of the
+ * latest calls, order of concurrent defers of the same method is approximate.
+ */
+public final class DeferredCalls {
+    /** Pending call per method ordinal. */
+    private final AtomicReferenceArray<Runnable> calls;
+    /** Sequence of the pending call per method ordinal. */
+    private final AtomicLongArray sequences;
+    /** Order of deferred calls. */
+    private final AtomicLong sequence = new AtomicLong();
+    /** Bits of the method ordinal in the sort key. */
+    private final int shift;
+
+    /**
+     * Main constructor.
+     *
+     * @param methods number of methods, usually Methods.METHOD_COUNT
+     */
+    public DeferredCalls(final int methods) {
+        this.calls = new AtomicReferenceArray<>(methods);
+        this.sequences = new AtomicLongArray(methods);
+        this.shift = 32 - Integer.numberOfLeadingZeros(methods);
+    }
+
+    /**
+     * Defer call of the method. Replaces previously deferred call of the same method.
+     *
+     * @param ordinal method ordinal
+     * @param call    call to replay
+     */
+    public void defer(final int ordinal, @NonNull final Runnable call) {
+        sequences.set(ordinal, sequence.incrementAndGet());
+        calls.set(ordinal, call);
+    }
+
+    /** Get number of pending calls. */
+    public int pending() {
+        int count = 0;
+
+        for (int i = 0, len = calls.length(); i < len; i++) {
+            if (null != calls.get(i)) count++;
+        }
+
+        return count;
+    }
+
+    /** Drop all pending calls. */
+    public void clear() {
+        for (int i = 0, len = calls.length(); i < len; i++) {
+            calls.set(i, null);
+        }
+    }
+
+    /**
+     * Replay all pending calls in order of their recording.
+     *
+     * @return number of replayed calls.
+     */
+    public int flush() {
+        final int len = calls.length();
+        final Runnable[] drained = new Runnable[len];
+        final long[] order = new long[len];
+        int count = 0;
+
+        for (int i = 0; i < len; i++) {
+            final Runnable call = calls.getAndSet(i, null);
+            if (null == call) continue;
+
+            drained[i] = call;
+            order[count++] = sequences.get(i) << shift | i; // sort key: sequence, then ordinal
+        }
+
+        Arrays.sort(order, 0, count);
+
+        for (int i = 0; i < count; i++) {
+            drained[(int) (order[i] & ((1L << shift) - 1))].run();
+        }
+
+        return count;
+    }
+}
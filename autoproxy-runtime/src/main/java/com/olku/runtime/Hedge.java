@@ -0,0 +1,110 @@
+package com.olku.runtime;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Hedged call: primary call executed on executor, if it does not complete in time the same call is issued
+ * to secondary delegate. First successful result wins, the other call is canceled.
+ */
+public final class Hedge {
+    private final long afterNs;
+
+    private final StripedCounter calls = new StripedCounter();
+    private final StripedCounter fired = new StripedCounter();
+    private final StripedCounter won = new StripedCounter();
+
+    /**
+     * Main constructor.
+     *
+     * @param afterMs delay of the secondary call
+     */
+    public Hedge(final long afterMs) {
+        this.afterNs = TimeUnit.MILLISECONDS.toNanos(afterMs);
+    }
+
+    /**
+     * Execute hedged call. Without secondary call the primary one executed in place. Exceptions re-thrown
+     * as is, secondary call failure re-thrown only when primary one failed too.
+     *
+     * @param executor  executor of the calls
+     * @param primary   call of the primary delegate
+     * @param secondary call of the secondary delegate
+     * @param <R>       type of the result
+     * @return result of the first successful call
+     */
+    public <R> R call(@NonNull final Executor executor, @NonNull final Callable<R> primary,
+                      @Nullable final Callable<R> secondary) {
+        calls.increment();
+
+        Future<R> first = null, second = null;
+        try {
+            if (null == secondary) return primary.call();
+
+            final CompletionService<R> completion = new ExecutorCompletionService<>(executor);
+            first = completion.submit(primary);
+
+            Future<R> done = completion.poll(afterNs, TimeUnit.NANOSECONDS);
+            if (null != done) return done.get();
+
+            fired.increment();
+            second = completion.submit(secondary);
+
+            done = completion.take();
+            try {
+                final R result = done.get();
+                if (done == second) won.increment();
+
+                return result;
+            } catch (final ExecutionException ex) {
+                // the other call still can succeed
+                done = completion.take();
+                if (done == second) won.increment();
+
+                return done.get();
+            }
+        } catch (final ExecutionException ex) {
+            throw Hedge.<RuntimeException>sneaky(ex.getCause());
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException(ex);
+        } catch (final Exception ex) {
+            throw Hedge.<RuntimeException>sneaky(ex);
+        } finally {
+            // loser of the race
+            if (null != first) first.cancel(true);
+            if (null != second) second.cancel(true);
+        }
+    }
+
+    /** Number of calls. */
+    public long calls() {
+        return calls.sum();
+    }
+
+    /** Number of calls that issued secondary call. */
+    public long fired() {
+        return fired.sum();
+    }
+
+    /** Number of calls completed by secondary call. */
+    public long won() {
+        return won.sum();
+    }
+
+    //region Implementation
+    @SuppressWarnings("unchecked")
+    private static <T extends Throwable> T sneaky(@NonNull final Throwable error) throws T {
+        throw (T) error;
+    }
+    //endregion
+}
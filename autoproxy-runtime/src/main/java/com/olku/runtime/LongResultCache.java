@@ -0,0 +1,254 @@
+package com.olku.runtime;
+
+import java.util.Arrays;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Result cache keyed by primitive value, e.g. single int or long parameter. Entries are stored in
+ * preallocated arrays of segment with open addressing index and intrusive LRU list, so lookup and
+ * replacement of entries do not allocate.
+ */
+public final class LongResultCache extends ResultCache {
+    private final Segment[] segments;
+    private final int mask;
+
+    /**
+     * Main constructor.
+     *
+     * @param maxEntries maximum number of entries
+     * @param ttlMs      time to live of the entry in milliseconds, zero - entries never expire
+     */
+    public LongResultCache(final int maxEntries, final long ttlMs) {
+        super(ttlMs);
+
+        final int count = segmentsFor(maxEntries);
+        final int capacity = (Math.max(1, maxEntries) + count - 1) / count;
+
+        this.segments = new Segment[count];
+        this.mask = count - 1;
+
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(capacity);
+        }
+    }
+
+    /**
+     * Find cached result.
+     *
+     * @param key   key of the call
+     * @param clock source of time for expiration
+     * @return cached value or {@link #MISS}.
+     */
+    public Object get(final long key, @NonNull final Clock clock) {
+        final long hash = mix(key);
+        final Segment segment = segments[(int) (hash >>> 32) & mask];
+
+        synchronized (segment) {
+            final int position = segment.find(key, hash);
+            if (position < 0) return found(MISS);
+
+            final int slot = segment.table[position] - 1;
+            if (isExpired(segment.expires[slot], clock)) {
+                segment.remove(position);
+                return found(MISS);
+            }
+
+            segment.touch(slot);
+            return found(segment.values[slot]);
+        }
+    }
+
+    /**
+     * Store result of the call.
+     *
+     * @param key   key of the call
+     * @param value result of the call
+     * @param clock source of time for expiration
+     */
+    public void put(final long key, final Object value, @NonNull final Clock clock) {
+        put(key, value, epoch(), clock);
+    }
+
+    /**
+     * Store result of the call, if cache was not cleared since the call start.
+     *
+     * @param key   key of the call
+     * @param value result of the call
+     * @param epoch epoch of the cache taken before the call
+     * @param clock source of time for expiration
+     * @return TRUE - result stored, FALSE - result of the previous epoch dropped.
+     */
+    public boolean put(final long key, final Object value, final long epoch, @NonNull final Clock clock) {
+        final long hash = mix(key);
+        final Segment segment = segments[(int) (hash >>> 32) & mask];
+        final long expiresAt = expiresAt(clock);
+
+        synchronized (segment) {
+            if (!isCurrent(epoch)) return false;
+
+            segment.put(key, hash, wrap(value), expiresAt);
+            return true;
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+
+        for (final Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size;
+            }
+        }
+
+        return size;
+    }
+
+    @Override
+    protected void clearEntries() {
+        for (final Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /** Segment: entries in slots, index by linear probing, LRU order by doubly linked list of slots. */
+    private static final class Segment {
+        /* package */ final long[] keys;
+        /* package */ final Object[] values;
+        /* package */ final long[] expires;
+        private final int[] prev;
+        private final int[] next;
+        /** Open addressing index: slot + 1, zero - empty position. */
+        /* package */ final int[] table;
+        private final int tableMask;
+        private final int capacity;
+
+        /** Most recently used slot. */
+        private int head = -1;
+        /** Least recently used slot. */
+        private int tail = -1;
+        /** Number of used slots. */
+        /* package */ int size;
+        /** Released slots, chained by next. */
+        private int free = -1;
+
+        /* package */ Segment(final int capacity) {
+            this.capacity = capacity;
+            this.keys = new long[capacity];
+            this.values = new Object[capacity];
+            this.expires = new long[capacity];
+            this.prev = new int[capacity];
+            this.next = new int[capacity];
+
+            final int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+            this.table = new int[tableSize];
+            this.tableMask = tableSize - 1;
+        }
+
+        /** Find position of the key in index, negative if not found. */
+        /* package */ int find(final long key, final long hash) {
+            for (int i = (int) hash & tableMask; ; i = (i + 1) & tableMask) {
+                final int slot = table[i] - 1;
+                if (slot < 0) return -1;
+                if (keys[slot] == key) return i;
+            }
+        }
+
+        /* package */ void put(final long key, final long hash, final Object value, final long expiresAt) {
+            int position = find(key, hash);
+            final int slot;
+
+            if (position >= 0) {
+                slot = table[position] - 1;
+            } else {
+                if (size == capacity) remove(find(keys[tail], mix(keys[tail])));
+
+                if (free >= 0) {
+                    slot = free;
+                    free = next[slot];
+                } else {
+                    slot = size;
+                }
+
+                for (position = (int) hash & tableMask; table[position] != 0; position = (position + 1) & tableMask) {
+                    // find empty position
+                }
+
+                table[position] = slot + 1;
+                keys[slot] = key;
+                link(slot);
+                size++;
+            }
+
+            values[slot] = value;
+            expires[slot] = expiresAt;
+            touch(slot);
+        }
+
+        /** Remove entry at index position, backward shift of following entries keeps probing valid. */
+        /* package */ void remove(int position) {
+            final int slot = table[position] - 1;
+
+            unlink(slot);
+            values[slot] = null;
+            next[slot] = free;
+            free = slot;
+            size--;
+
+            for (int i = (position + 1) & tableMask; table[i] != 0; i = (i + 1) & tableMask) {
+                final int ideal = (int) mix(keys[table[i] - 1]) & tableMask;
+
+                // entry at i can be moved to the hole if its ideal position is not in (hole, i]
+                final boolean movable = position <= i
+                        ? (ideal <= position || ideal > i)
+                        : (ideal <= position && ideal > i);
+
+                if (movable) {
+                    table[position] = table[i];
+                    position = i;
+                }
+            }
+
+            table[position] = 0;
+        }
+
+        /** Move slot to the head of LRU list. */
+        /* package */ void touch(final int slot) {
+            if (head == slot) return;
+
+            unlink(slot);
+            link(slot);
+        }
+
+        /* package */ void clear() {
+            Arrays.fill(table, 0);
+            Arrays.fill(values, null);
+            head = tail = free = -1;
+            size = 0;
+        }
+
+        private void link(final int slot) {
+            prev[slot] = -1;
+            next[slot] = head;
+
+            if (head >= 0) prev[head] = slot;
+            head = slot;
+
+            if (tail < 0) tail = slot;
+        }
+
+        private void unlink(final int slot) {
+            final int p = prev[slot];
+            final int n = next[slot];
+
+            if (p >= 0) next[p] = n;
+            else head = n;
+
+            if (n >= 0) prev[n] = p;
+            else tail = p;
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.olku.runtime;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Actor mailbox: bounded lock-free multi-producer/single-consumer queue drained by executor.
+ * Slots of the queue preallocated, producers claim them by CAS (bounded queue of D. Vyukov).
+ * Only one drain task of the mailbox is active at a time, so messages are executed one by one in order
+ * of posting; idle mailbox holds no thread.
+ */
+public final class Mailbox implements Executor {
+    /** Full queue: wait for free slot. */
+    public static final int BLOCK = 0;
+    /** Full queue: silently drop the message. */
+    public static final int DROP = 1;
+    /** Full queue: reject the message, proxy uses @Yield value of the method. */
+    public static final int YIELD = 2;
+
+    /** Default capacity of the mailbox. */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final long BACKOFF_NS = 1000;
+    /** Max number of messages executed by one drain task before it yields thread of the executor. */
+    private static final int THROUGHPUT = 256;
+
+    private final AtomicReferenceArray<Runnable> buffer;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final int policy;
+
+    /** Producers position. */
+    private final AtomicLong tail = new AtomicLong();
+    /** Consumer position, written only by consumer thread. */
+    private volatile long head;
+    /** Messages moved out of full queue by consumer to free slot for its own message, executed first. */
+    private final ArrayDeque<Runnable> spilled = new ArrayDeque<>();
+    private volatile int spilledCount;
+    /** New messages are rejected. */
+    private volatile boolean closed;
+    /** Drain task is submitted to the executor or running. */
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    /** Thread of the running drain task. */
+    private volatile Thread consumer;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile long failed;
+
+    private final Executor executor;
+    private final Runnable drain = new Runnable() {
+        @Override
+        public void run() {
+            drain();
+        }
+    };
+
+    /** Mailbox with default capacity and {@link #BLOCK} policy. */
+    public Mailbox() {
+        this(DEFAULT_CAPACITY, BLOCK);
+    }
+
+    /**
+     * Mailbox drained by shared pool of daemon threads. Pool threads are created on demand and stopped after
+     * one minute of idle time.
+     *
+     * @param capacity capacity of the queue, rounded up to power of two
+     * @param policy   full queue policy: {@link #BLOCK}, {@link #DROP} or {@link #YIELD}
+     */
+    public Mailbox(final int capacity, final int policy) {
+        this(capacity, policy, Shared.INSTANCE);
+    }
+
+    /**
+     * Main constructor.
+     *
+     * @param capacity capacity of the queue, rounded up to power of two
+     * @param policy   full queue policy: {@link #BLOCK}, {@link #DROP} or {@link #YIELD}
+     * @param executor executor of the drain task, should not execute it in place
+     */
+    public Mailbox(final int capacity, final int policy, @NonNull final Executor executor) {
+        final int size = capacity <= 1 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+
+        this.buffer = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.policy = policy;
+        this.executor = executor;
+
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Post message to the mailbox. Closed mailbox rejects messages independent to policy. Consumer cannot wait
+     * for itself: message posted by consumer to full queue with {@link #BLOCK} policy is queued anyway, after
+     * already queued messages.
+     *
+     * @param message message to execute on consumer thread
+     * @return FALSE - message rejected by {@link #YIELD} policy or closed mailbox, otherwise TRUE.
+     */
+    public boolean post(@NonNull final Runnable message) {
+        for (; ; ) {
+            if (closed) {
+                rejected.incrementAndGet();
+                return false;
+            }
+
+            if (offer(message)) return true;
+
+            if (BLOCK == policy && Thread.currentThread() == consumer) {
+                spill();
+                continue;
+            }
+
+            if (DROP == policy) {
+                dropped.incrementAndGet();
+                return true;
+            }
+
+            if (YIELD == policy) {
+                rejected.incrementAndGet();
+                return false;
+            }
+
+            LockSupport.parkNanos(this, BACKOFF_NS);
+        }
+    }
+
+    /**
+     * Execute call on consumer thread and wait for result: caller is blocked until all messages queued before
+     * the call and the call itself are executed. Always waits for free slot independent to policy. Call of the
+     * consumer itself is executed in place, waiting for own message is a deadlock.
+     * Exceptions of the call re-thrown as is, closed mailbox raises {@link RejectedExecutionException}.
+     *
+     * @param call call to execute
+     * @param <R>  type of the result
+     * @return result of the call
+     */
+    public <R> R call(@NonNull final Callable<R> call) {
+        try {
+            if (Thread.currentThread() == consumer) return call.call();
+
+            final FutureTask<R> task = new FutureTask<>(call);
+            for (; ; ) {
+                if (closed) throw new RejectedExecutionException("mailbox is closed");
+                if (offer(task)) break;
+
+                LockSupport.parkNanos(this, BACKOFF_NS);
+            }
+
+            return task.get();
+        } catch (final ExecutionException ex) {
+            throw Mailbox.<RuntimeException>sneaky(ex.getCause());
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException(ex);
+        } catch (final Exception ex) {
+            throw Mailbox.<RuntimeException>sneaky(ex);
+        }
+    }
+
+    /**
+     * {@inheritDoc} Messages rejected by {@link #YIELD} policy or closed mailbox raise
+     * {@link RejectedExecutionException}.
+     */
+    @Override
+    public void execute(@NonNull final Runnable command) {
+        if (!post(command)) {
+            throw new RejectedExecutionException(closed ? "mailbox is closed" : "mailbox is full");
+        }
+    }
+
+    /** Reject new messages, already posted messages are executed. */
+    public void close() {
+        closed = true;
+    }
+
+    //region Metrics
+
+    /** Number of messages in queue. */
+    public long depth() {
+        return Math.max(0, tail.get() - head) + spilledCount;
+    }
+
+    /** Capacity of the queue. */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /** Total number of accepted messages. */
+    public long posted() {
+        return tail.get();
+    }
+
+    /** Number of messages dropped by {@link #DROP} policy. */
+    public long dropped() {
+        return dropped.get();
+    }
+
+    /** Number of messages rejected by {@link #YIELD} policy or closed mailbox. */
+    public long rejected() {
+        return rejected.get();
+    }
+
+    /** Number of messages that raise exception during execution. */
+    public long failed() {
+        return failed;
+    }
+    //endregion
+
+    //region Implementation
+    private boolean offer(@NonNull final Runnable message) {
+        long position = tail.get();
+
+        for (; ; ) {
+            final int index = (int) (position & mask);
+            final long delta = sequences.get(index) - position;
+
+            if (0 == delta) {
+                if (tail.compareAndSet(position, position + 1)) break;
+                position = tail.get();
+            } else if (delta < 0) {
+                return false; // full
+            } else {
+                position = tail.get();
+            }
+        }
+
+        final int index = (int) (position & mask);
+        buffer.set(index, message);
+        sequences.set(index, position + 1);
+
+        schedule();
+
+        return true;
+    }
+
+    private Runnable poll() {
+        final long position = head;
+        final int index = (int) (position & mask);
+
+        if (sequences.get(index) != position + 1) return null; // empty or not published yet
+
+        final Runnable message = buffer.get(index);
+        buffer.set(index, null);
+        head = position + 1;
+        sequences.set(index, position + mask + 1);
+
+        return message;
+    }
+
+    /** Message at head of the queue is published. */
+    private boolean isPublished() {
+        final long position = head;
+        return sequences.get((int) (position & mask)) == position + 1;
+    }
+
+    /** Move head of the queue to spilled messages. Consumer only. */
+    private void spill() {
+        final Runnable message = poll();
+        if (null == message) return; // producer of the head message still publishes it, retry
+
+        spilled.add(message);
+        spilledCount = spilled.size();
+    }
+
+    private void schedule() {
+        if (scheduled.get() || !scheduled.compareAndSet(false, true)) return;
+
+        try {
+            executor.execute(drain);
+        } catch (final RejectedExecutionException ex) {
+            scheduled.set(false);
+            throw ex;
+        }
+    }
+
+    private void drain() {
+        final Thread current = Thread.currentThread();
+        consumer = current;
+
+        for (int i = 0; i < THROUGHPUT; i++) {
+            Runnable message = spilled.poll();
+            if (null != message) spilledCount = spilled.size();
+            else message = poll();
+
+            if (null == message) {
+                consumer = null;
+                scheduled.set(false);
+
+                // producer that published after the reset schedules drain itself
+                if (isPublished()) schedule();
+                return;
+            }
+
+            try {
+                message.run();
+            } catch (final Throwable error) {
+                failed++;
+                current.getUncaughtExceptionHandler().uncaughtException(current, error);
+            }
+        }
+
+        // yield thread of the executor to other tasks, drain stays scheduled
+        consumer = null;
+        try {
+            executor.execute(drain);
+        } catch (final RejectedExecutionException ex) {
+            scheduled.set(false);
+            throw ex;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Throwable> T sneaky(@NonNull final Throwable error) throws T {
+        throw (T) error;
+    }
+
+    private static final class Shared {
+        /* package */ static final Executor INSTANCE = createExecutor();
+
+        @NonNull
+        private static Executor createExecutor() {
+            return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+                    new SynchronousQueue<Runnable>(), new ThreadFactory() {
+                @Override
+                public Thread newThread(@NonNull final Runnable r) {
+                    final Thread thread = new Thread(r, "autoproxy-mailbox");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+    }
+    //endregion
+}
@@ -0,0 +1,21 @@
+package com.olku.runtime;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import androidx.annotation.NonNull;
+
+/** Test stand-in clock, time moves only by {@link #advance(long, TimeUnit)} calls. */
+public class ManualClock implements Clock {
+    private final AtomicLong now = new AtomicLong();
+
+    @Override
+    public long nanoTime() {
+        return now.get();
+    }
+
+    /** Move time forward. */
+    public void advance(final long duration, @NonNull final TimeUnit unit) {
+        now.addAndGet(unit.toNanos(duration));
+    }
+}
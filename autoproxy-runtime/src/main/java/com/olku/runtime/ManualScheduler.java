@@ -0,0 +1,60 @@
+package com.olku.runtime;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import androidx.annotation.NonNull;
+
+/** Test stand-in scheduler. Tasks are executed on caller thread of {@link #advance(long, TimeUnit)}. */
+public class ManualScheduler extends ManualClock implements Scheduler {
+    private final PriorityQueue<Task> tasks = new PriorityQueue<>();
+    private long sequence;
+
+    @Override
+    public synchronized void schedule(@NonNull final Runnable task, final long delayMs) {
+        tasks.add(new Task(nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMs), sequence++, task));
+    }
+
+    /** Move time forward and execute all tasks that become due. */
+    @Override
+    public void advance(final long duration, @NonNull final TimeUnit unit) {
+        final long deadline = nanoTime() + unit.toNanos(duration);
+
+        Task task;
+        while (null != (task = poll(deadline))) {
+            super.advance(task.due - nanoTime(), TimeUnit.NANOSECONDS);
+            task.task.run();
+        }
+
+        super.advance(deadline - nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    /** Get number of not executed tasks. */
+    public synchronized int pending() {
+        return tasks.size();
+    }
+
+    private synchronized Task poll(final long deadline) {
+        final Task head = tasks.peek();
+
+        return (null != head && head.due <= deadline) ? tasks.poll() : null;
+    }
+
+    private static final class Task implements Comparable<Task> {
+        /* package */ final long due;
+        /* package */ final long order;
+        /* package */ final Runnable task;
+
+        /* package */ Task(final long due, final long order, @NonNull final Runnable task) {
+            this.due = due;
+            this.order = order;
+            this.task = task;
+        }
+
+        @Override
+        public int compareTo(@NonNull final Task other) {
+            final int byDue = Long.compare(due, other.due);
+            return 0 != byDue ? byDue : Long.compare(order, other.order);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.olku.runtime;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Lock-free gate of proxied methods. Keeps bitmask of enabled methods (indexed by method ordinal),
+ * global open/close flag and optionally cached predicate results. All information published as one
+ * immutable {@link State}, so check of the method costs one volatile read.
+ */
+public final class MethodGate {
+    /** Call is not allowed. */
+    public static final int DENY = 0;
+    /** Call is allowed by gate, but predicate should be asked. */
+    public static final int ASK = 1;
+    /** Call is allowed, predicate result taken from cache. */
+    public static final int ALLOW = 2;
+
+    private static final AtomicReferenceFieldUpdater<MethodGate, State> STATE =
+            AtomicReferenceFieldUpdater.newUpdater(MethodGate.class, State.class, "state");
+
+    /** Is predicate results caching enabled. */
+    private final boolean cached;
+    /** Current state of the gate. */
+    private volatile State state;
+
+    /**
+     * Main constructor.
+     *
+     * @param methods number of methods, usually Methods.METHOD_COUNT
+     * @param cached  cache predicate results till {@link #invalidate()} call
+     */
+    public MethodGate(final int methods, final boolean cached) {
+        this.cached = cached;
+
+        final int words = (methods + 63) >>> 6;
+        this.state = new State(true, fill(words), new long[words], new long[words]);
+    }
+
+    /** Get current state of the gate. */
+    @NonNull
+    public State state() {
+        return state;
+    }
+
+    /** Open or close the gate for all methods. Closed gate denies calls without predicate call. */
+    public void setGate(final boolean open) {
+        State current;
+        do {
+            current = state;
+        } while (current.open != open && !STATE.compareAndSet(this, current,
+                new State(open, current.enabled, current.known, current.allowed)));
+    }
+
+    /** Enable all methods. */
+    public void enableAll() {
+        State current;
+        do {
+            current = state;
+        } while (!STATE.compareAndSet(this, current,
+                new State(current.open, fill(current.enabled.length), current.known, current.allowed)));
+    }
+
+    /** Enable provided methods. */
+    public void enable(@NonNull final int... ordinals) {
+        State current;
+        do {
+            current = state;
+        } while (!STATE.compareAndSet(this, current,
+                new State(current.open, mark(current.enabled, true, ordinals), current.known, current.allowed)));
+    }
+
+    /** Disable provided methods. Disabled methods are denied without predicate call. */
+    public void disable(@NonNull final int... ordinals) {
+        State current;
+        do {
+            current = state;
+        } while (!STATE.compareAndSet(this, current,
+                new State(current.open, mark(current.enabled, false, ordinals), current.known, current.allowed)));
+    }
+
+    /** Drop all cached predicate results. Next call of each method will ask predicate again. */
+    public void invalidate() {
+        State current;
+        do {
+            current = state;
+        } while (!STATE.compareAndSet(this, current,
+                new State(current.open, current.enabled,
+                        new long[current.known.length], new long[current.allowed.length])));
+    }
+
+    /**
+     * Remember predicate result if caching enabled. Result is not cached if gate state was changed
+     * after the moment of {@code seen} state reading, that protects from caching of outdated results.
+     *
+     * @param seen    state of the gate used for decision
+     * @param ordinal method ordinal
+     * @param allowed predicate result
+     * @return predicate result
+     */
+    public boolean remember(@NonNull final State seen, final int ordinal, final boolean allowed) {
+        if (cached) {
+            STATE.compareAndSet(this, seen, new State(seen.open, seen.enabled,
+                    mark(seen.known, true, ordinal), mark(seen.allowed, allowed, ordinal)));
+        }
+
+        return allowed;
+    }
+
+    @NonNull
+    private static long[] fill(final int words) {
+        final long[] result = new long[words];
+        Arrays.fill(result, -1L);
+        return result;
+    }
+
+    @NonNull
+    private static long[] mark(@NonNull final long[] bits, final boolean value, @NonNull final int... ordinals) {
+        final long[] result = bits.clone();
+
+        for (final int ordinal : ordinals) {
+            if (value) {
+                result[ordinal >>> 6] |= 1L << ordinal;
+            } else {
+                result[ordinal >>> 6] &= ~(1L << ordinal);
+            }
+        }
+
+        return result;
+    }
+
+    /** Immutable snapshot of the gate. */
+    public static final class State {
+        /* package */ final boolean open;
+        /* package */ final long[] enabled;
+        /* package */ final long[] known;
+        /* package */ final long[] allowed;
+
+        /* package */ State(final boolean open, final long[] enabled, final long[] known, final long[] allowed) {
+            this.open = open;
+            this.enabled = enabled;
+            this.known = known;
+            this.allowed = allowed;
+        }
+
+        /**
+         * Make decision for provided method.
+         *
+         * @param ordinal method ordinal
+         * @return one of {@link #DENY}, {@link #ASK} or {@link #ALLOW}
+         */
+        public int decide(final int ordinal) {
+            final int word = ordinal >>> 6;
+            final long bit = 1L << ordinal;
+
+            if (!open || 0 == (enabled[word] & bit)) return DENY;
+            if (0 == (known[word] & bit)) return ASK;
+
+            return 0 != (allowed[word] & bit) ? ALLOW : DENY;
+        }
+    }
+}
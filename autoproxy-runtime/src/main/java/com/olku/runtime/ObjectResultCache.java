@@ -0,0 +1,143 @@
+package com.olku.runtime;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+
+/** Result cache keyed by object, e.g. single reference parameter or {@link ResultCache#key(Object...)}. */
+public final class ObjectResultCache extends ResultCache {
+    private final Segment[] segments;
+    private final int mask;
+
+    /**
+     * Main constructor.
+     *
+     * @param maxEntries maximum number of entries
+     * @param ttlMs      time to live of the entry in milliseconds, zero - entries never expire
+     */
+    public ObjectResultCache(final int maxEntries, final long ttlMs) {
+        super(ttlMs);
+
+        final int count = segmentsFor(maxEntries);
+        final int capacity = (Math.max(1, maxEntries) + count - 1) / count;
+
+        this.segments = new Segment[count];
+        this.mask = count - 1;
+
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(capacity);
+        }
+    }
+
+    /**
+     * Find cached result.
+     *
+     * @param key   key of the call, NULL allowed
+     * @param clock source of time for expiration
+     * @return cached value or {@link #MISS}.
+     */
+    public Object get(final Object key, @NonNull final Clock clock) {
+        final Object k = wrap(key);
+        final Segment segment = segmentOf(k);
+
+        synchronized (segment) {
+            final Entry entry = segment.get(k);
+
+            if (null == entry) return found(MISS);
+
+            if (isExpired(entry.expiresAt, clock)) {
+                segment.remove(k);
+                return found(MISS);
+            }
+
+            return found(entry.value);
+        }
+    }
+
+    /**
+     * Store result of the call.
+     *
+     * @param key   key of the call, NULL allowed
+     * @param value result of the call
+     * @param clock source of time for expiration
+     */
+    public void put(final Object key, final Object value, @NonNull final Clock clock) {
+        put(key, value, epoch(), clock);
+    }
+
+    /**
+     * Store result of the call, if cache was not cleared since the call start.
+     *
+     * @param key   key of the call, NULL allowed
+     * @param value result of the call
+     * @param epoch epoch of the cache taken before the call
+     * @param clock source of time for expiration
+     * @return TRUE - result stored, FALSE - result of the previous epoch dropped.
+     */
+    public boolean put(final Object key, final Object value, final long epoch, @NonNull final Clock clock) {
+        final Object k = wrap(key);
+        final Segment segment = segmentOf(k);
+        final Entry entry = new Entry(wrap(value), expiresAt(clock));
+
+        synchronized (segment) {
+            if (!isCurrent(epoch)) return false;
+
+            segment.put(k, entry);
+            return true;
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+
+        for (final Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+
+        return size;
+    }
+
+    @Override
+    protected void clearEntries() {
+        for (final Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    private Segment segmentOf(@NonNull final Object key) {
+        return segments[(int) (mix(key.hashCode()) >>> 32) & mask];
+    }
+
+    /** Cached value. */
+    private static final class Entry {
+        /* package */ final Object value;
+        /* package */ final long expiresAt;
+
+        /* package */ Entry(final Object value, final long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /** LRU segment, access ordered map. */
+    @SuppressWarnings("serial")
+    private static final class Segment extends LinkedHashMap<Object, Entry> {
+        private final int capacity;
+
+        /* package */ Segment(final int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Object, Entry> eldest) {
+            return size() > capacity;
+        }
+    }
+}
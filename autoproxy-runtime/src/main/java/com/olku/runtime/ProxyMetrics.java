@@ -0,0 +1,192 @@
+package com.olku.runtime;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Per-method metrics of the proxy: calls, rejected by predicate calls, failed calls and latency
+ * histogram. All structures preallocated and indexed by method ordinal, updates are lock-free.
+ * <p>
+ * Histogram is log-linear: each power of two range of nanoseconds split on {@link #SUB_BUCKETS}
+ * linear buckets, so relative error of the percentiles is below 25%.
+ */
+public final class ProxyMetrics {
+    /** Number of linear buckets per power of two. */
+    public static final int SUB_BUCKETS = 4;
+    /** Number of buckets per method, covers full range of positive long. */
+    public static final int BUCKETS = (62 - 1) * SUB_BUCKETS + SUB_BUCKETS;
+
+    private static final int SUB_BITS = 2;
+
+    private final String[] names;
+    private final StripedCounter[] calls;
+    private final StripedCounter[] rejected;
+    private final StripedCounter[] errors;
+    private final AtomicLongArray histogram;
+
+    /**
+     * Main constructor.
+     *
+     * @param names names of the methods in order of ordinals
+     */
+    public ProxyMetrics(@NonNull final String... names) {
+        final int count = names.length;
+
+        this.names = names.clone();
+        this.calls = new StripedCounter[count];
+        this.rejected = new StripedCounter[count];
+        this.errors = new StripedCounter[count];
+        this.histogram = new AtomicLongArray(count * BUCKETS);
+
+        for (int i = 0; i < count; i++) {
+            calls[i] = new StripedCounter();
+            rejected[i] = new StripedCounter();
+            errors[i] = new StripedCounter();
+        }
+    }
+
+    /** Start time of the call measurement. */
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Record completed call, successful or failed.
+     *
+     * @param ordinal method ordinal
+     * @param started value of {@link #start()} before the call
+     */
+    public void record(final int ordinal, final long started) {
+        calls[ordinal].increment();
+        histogram.incrementAndGet(ordinal * BUCKETS + bucketOf(System.nanoTime() - started));
+    }
+
+    /** Record call rejected by predicate. */
+    public void rejected(final int ordinal) {
+        rejected[ordinal].increment();
+    }
+
+    /** Record call that raised exception. */
+    public void error(final int ordinal) {
+        errors[ordinal].increment();
+    }
+
+    /** Number of methods. */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Take snapshot of the method metrics.
+     *
+     * @param ordinal method ordinal
+     * @return copy of counters and histogram.
+     */
+    @NonNull
+    public Snapshot snapshot(final int ordinal) {
+        final long[] buckets = new long[BUCKETS];
+
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = histogram.get(ordinal * BUCKETS + i);
+        }
+
+        return new Snapshot(names[ordinal], calls[ordinal].sum(), rejected[ordinal].sum(),
+                errors[ordinal].sum(), buckets);
+    }
+
+    /** Reset all counters and histograms. */
+    public void reset() {
+        for (int i = 0; i < names.length; i++) {
+            calls[i].reset();
+            rejected[i].reset();
+            errors[i].reset();
+        }
+
+        for (int i = 0, len = histogram.length(); i < len; i++) {
+            histogram.set(i, 0);
+        }
+    }
+
+    //region Implementation
+
+    /** Index of the histogram bucket for provided duration. */
+    /* package */ static int bucketOf(final long nanos) {
+        if (nanos < SUB_BUCKETS) return (int) Math.max(0, nanos);
+
+        final int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        final int mantissa = (int) (nanos >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+
+        return (exponent - 1) * SUB_BUCKETS + mantissa;
+    }
+
+    /** Highest duration of the bucket, inclusive. */
+    /* package */ static long upperBoundOf(final int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+
+        final int exponent = bucket / SUB_BUCKETS + 1;
+        final long mantissa = SUB_BUCKETS + bucket % SUB_BUCKETS;
+        final long lower = mantissa << (exponent - SUB_BITS);
+
+        return bucket == BUCKETS - 1 ? Long.MAX_VALUE : lower + (1L << (exponent - SUB_BITS)) - 1;
+    }
+    //endregion
+
+    /** Immutable metrics of one method. */
+    public static final class Snapshot {
+        /** Name of the method. */
+        public final String name;
+        /** Number of completed calls. */
+        public final long calls;
+        /** Number of calls rejected by predicate or concurrency limit. */
+        public final long rejected;
+        /** Number of calls that raised exception. */
+        public final long errors;
+
+        private final long[] buckets;
+
+        /* package */ Snapshot(@NonNull final String name, final long calls, final long rejected,
+                               final long errors, @NonNull final long[] buckets) {
+            this.name = name;
+            this.calls = calls;
+            this.rejected = rejected;
+            this.errors = errors;
+            this.buckets = buckets;
+        }
+
+        /**
+         * Latency percentile.
+         *
+         * @param quantile quantile in range [0..1], e.g. 0.99
+         * @return upper bound of the bucket in nanoseconds, zero if no calls recorded.
+         */
+        public long percentile(final double quantile) {
+            long total = 0;
+            for (final long count : buckets) total += count;
+
+            if (0 == total) return 0;
+
+            final long rank = Math.max(1, (long) Math.ceil(quantile * total));
+            long seen = 0;
+
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank) return upperBoundOf(i);
+            }
+
+            return upperBoundOf(buckets.length - 1);
+        }
+
+        /** Number of calls per histogram bucket, copy. */
+        @NonNull
+        public long[] buckets() {
+            return buckets.clone();
+        }
+
+        @Override
+        public String toString() {
+            return name + "{calls=" + calls + ", rejected=" + rejected + ", errors=" + errors +
+                    ", p50=" + percentile(0.5) + "ns, p99=" + percentile(0.99) + "ns}";
+        }
+    }
+}
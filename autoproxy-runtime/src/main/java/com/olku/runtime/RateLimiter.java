@@ -0,0 +1,62 @@
+package com.olku.runtime;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Lock-free token bucket. Bucket state kept as one timestamp: theoretical arrival time of the next permit
+ * (GCRA form of the token bucket), so permit is taken by single CAS without allocations.
+ */
+public final class RateLimiter {
+    private static final AtomicLongFieldUpdater<RateLimiter> NEXT =
+            AtomicLongFieldUpdater.newUpdater(RateLimiter.class, "next");
+
+    /** Time between permits in nanoseconds. */
+    private final long interval;
+    /** Bucket capacity in nanoseconds: burst * interval. */
+    private final long tolerance;
+    private final StripedCounter rejected = new StripedCounter();
+
+    /** Theoretical arrival time of the next permit, {@link Long#MIN_VALUE} - full bucket. */
+    private volatile long next = Long.MIN_VALUE;
+
+    /**
+     * Main constructor.
+     *
+     * @param permitsPerSecond rate of permits
+     * @param burst            capacity of the bucket, number of permits available at once
+     */
+    public RateLimiter(final double permitsPerSecond, final int burst) {
+        if (!(permitsPerSecond > 0) || burst < 1) {
+            throw new IllegalArgumentException("rate: " + permitsPerSecond + ", burst: " + burst);
+        }
+
+        this.interval = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.tolerance = interval * burst;
+    }
+
+    /**
+     * Take permit if available.
+     *
+     * @param now current monotonic time in nanoseconds, see {@link Clock#nanoTime()}
+     * @return TRUE - permit taken, otherwise FALSE.
+     */
+    public boolean tryAcquire(final long now) {
+        for (; ; ) {
+            final long current = next;
+            final long updated = Math.max(current, now) + interval;
+
+            if (updated - now > tolerance) {
+                rejected.increment();
+                return false;
+            }
+
+            if (NEXT.compareAndSet(this, current, updated)) return true;
+        }
+    }
+
+    /** Number of calls rejected because of limit. */
+    public long rejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,125 @@
+package com.olku.runtime;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Bounded concurrent cache of method results with LRU eviction and optional TTL. Cache is split on
+ * segments with own lock, so concurrent lookups of different keys rarely contend. NULL results are cached too.
+ * Each {@link #clear()} starts new epoch, result of the call started in previous epoch is not stored.
+ */
+public abstract class ResultCache {
+    /** Marker of the cache miss. */
+    public static final Object MISS = new Object();
+
+    /** Marker of cached NULL value. */
+    protected static final Object NULL = new Object();
+
+    /** Time to live of the entry in nanoseconds, zero - entries never expire. */
+    protected final long ttlNanos;
+
+    private final StripedCounter hits = new StripedCounter();
+    private final StripedCounter misses = new StripedCounter();
+
+    /** Generation of the cache content, incremented before each clear. */
+    private volatile long epoch;
+
+    /**
+     * Main constructor.
+     *
+     * @param ttlMs time to live of the entry in milliseconds, zero - entries never expire
+     */
+    protected ResultCache(final long ttlMs) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, ttlMs));
+    }
+
+    /**
+     * Compose key of the multi-parameter method.
+     *
+     * @param args arguments of the call
+     * @return key with value based equality.
+     */
+    @NonNull
+    public static List<Object> key(@NonNull final Object... args) {
+        return Arrays.asList(args);
+    }
+
+    /** Number of lookups served from cache. */
+    public final long hits() {
+        return hits.sum();
+    }
+
+    /** Number of lookups that required inner call. */
+    public final long misses() {
+        return misses.sum();
+    }
+
+    /** Current epoch of the cache, take it before the call which result will be stored. */
+    public final long epoch() {
+        return epoch;
+    }
+
+    /** Number of cached entries, expired but not evicted entries included. */
+    public abstract int size();
+
+    /** Drop all entries and start new epoch. */
+    public final void clear() {
+        // new epoch first: put that already passed the check is removed by clear of its segment
+        synchronized (this) {
+            epoch++;
+        }
+
+        clearEntries();
+    }
+
+    //region Implementation
+    /** Drop all entries of segments. */
+    protected abstract void clearEntries();
+
+    /** Is result of the call started in provided epoch still valid, call under segment lock. */
+    protected final boolean isCurrent(final long epoch) {
+        return this.epoch == epoch;
+    }
+
+    /** Number of segments for provided capacity, power of two. */
+    protected static int segmentsFor(final int maxEntries) {
+        return Math.min(16, Integer.highestOneBit(Math.max(1, maxEntries / 16)));
+    }
+
+    /** Expiration time of the entry created now. */
+    protected final long expiresAt(@NonNull final Clock clock) {
+        return 0 == ttlNanos ? 0 : clock.nanoTime() + ttlNanos;
+    }
+
+    /** Is entry with provided expiration time expired. */
+    protected final boolean isExpired(final long expiresAt, @NonNull final Clock clock) {
+        return 0 != expiresAt && clock.nanoTime() - expiresAt >= 0;
+    }
+
+    /** Account lookup result and unwrap stored value. */
+    protected final Object found(final Object stored) {
+        if (MISS == stored) {
+            misses.increment();
+            return MISS;
+        }
+
+        hits.increment();
+        return NULL == stored ? null : stored;
+    }
+
+    /** Wrap value for storage. */
+    protected static Object wrap(final Object value) {
+        return null == value ? NULL : value;
+    }
+
+    /** Spread bits of the hash, 64-bit finalizer of MurmurHash3. */
+    protected static long mix(long hash) {
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+    //endregion
+}
@@ -0,0 +1,137 @@
+package com.olku.runtime;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Parallel call of the same method on many delegates. Each delegate is called on executor, caller waits
+ * for all results, for the first successful result or till deadline. Not finished calls are canceled.
+ */
+public final class ScatterGather {
+    /** Marker of failed call. */
+    private static final Object FAILED = new Object();
+    /** Marker of NULL result. */
+    private static final Object NULL = new Object();
+
+    /**
+     * Call of the delegate.
+     *
+     * @param <T> type of the delegate
+     * @param <R> type of the result
+     */
+    public interface Call<T, R> {
+        R call(@NonNull final T delegate) throws Exception;
+    }
+
+    private ScatterGather() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Call all delegates in parallel and gather results.
+     *
+     * @param executor   executor of the calls, e.g. fork-join pool or virtual threads
+     * @param delegates  delegates to call
+     * @param call       call of the delegate
+     * @param deadlineMs maximum wait time in milliseconds, zero - wait for all calls
+     * @param first      TRUE - wait only for the first successful result
+     * @param <T>        type of the delegate
+     * @param <R>        type of the result
+     * @return successful results in order of delegates (one result in first mode), partial on deadline.
+     * Failure of the call re-thrown as is if no call succeeded.
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    public static <T, R> List<R> gather(@NonNull final Executor executor, @NonNull final T[] delegates,
+                                        @NonNull final Call<? super T, ? extends R> call,
+                                        final long deadlineMs, final boolean first) {
+        final int count = delegates.length;
+        if (0 == count) return Collections.emptyList();
+
+        final AtomicReferenceArray<Object> results = new AtomicReferenceArray<>(count);
+        final AtomicReference<Object> winner = new AtomicReference<>();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final AtomicInteger pending = new AtomicInteger(count);
+        final CountDownLatch done = new CountDownLatch(1);
+
+        final List<FutureTask<Void>> tasks = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            final int index = i;
+            final T delegate = delegates[i];
+
+            final FutureTask<Void> task = new FutureTask<>(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        final Object result = call.call(delegate);
+                        final Object value = null == result ? NULL : result;
+
+                        results.set(index, value);
+                        if (first && winner.compareAndSet(null, value)) done.countDown();
+                    } catch (final Throwable error) {
+                        results.set(index, FAILED);
+                        failure.compareAndSet(null, error);
+                    } finally {
+                        if (0 == pending.decrementAndGet()) done.countDown();
+                    }
+                }
+            }, null);
+
+            tasks.add(task);
+            executor.execute(task);
+        }
+
+        try {
+            if (deadlineMs > 0) {
+                done.await(deadlineMs, TimeUnit.MILLISECONDS);
+            } else {
+                done.await();
+            }
+        } catch (final InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+        }
+
+        final List<R> gathered = new ArrayList<>(first ? 1 : count);
+
+        if (first) {
+            final Object value = winner.get();
+            if (null != value) gathered.add(NULL == value ? null : (R) value);
+        } else {
+            for (int i = 0; i < count; i++) {
+                final Object value = results.get(i);
+                if (null == value || FAILED == value) continue;
+
+                gathered.add(NULL == value ? null : (R) value);
+            }
+        }
+
+        // results are taken, interrupted calls cannot affect them
+        final Throwable failed = failure.get();
+
+        for (final FutureTask<Void> task : tasks) {
+            task.cancel(true);
+        }
+
+        if (gathered.isEmpty() && null != failed) {
+            throw ScatterGather.<RuntimeException>sneaky(failed);
+        }
+
+        return gathered;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Throwable> T sneaky(@NonNull final Throwable error) throws T {
+        throw (T) error;
+    }
+}
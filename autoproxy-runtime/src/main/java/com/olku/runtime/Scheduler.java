@@ -0,0 +1,14 @@
+package com.olku.runtime;
+
+import androidx.annotation.NonNull;
+
+/** Delayed execution of tasks. On Android can be implemented on top of Handler. */
+public interface Scheduler {
+    /**
+     * Schedule task execution.
+     *
+     * @param task    task to execute
+     * @param delayMs delay in milliseconds
+     */
+    void schedule(@NonNull final Runnable task, final long delayMs);
+}
@@ -0,0 +1,51 @@
+package com.olku.runtime;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import androidx.annotation.NonNull;
+
+/** Factory of schedulers. */
+public final class Schedulers {
+    private Schedulers() {
+        throw new AssertionError();
+    }
+
+    /** Shared scheduler on top of single daemon thread. Created on first use. */
+    @NonNull
+    public static Scheduler shared() {
+        return Shared.INSTANCE;
+    }
+
+    /** Scheduler on top of provided executor. */
+    @NonNull
+    public static Scheduler from(@NonNull final ScheduledExecutorService executor) {
+        return new Scheduler() {
+            @Override
+            public void schedule(@NonNull final Runnable task, final long delayMs) {
+                executor.schedule(task, delayMs, TimeUnit.MILLISECONDS);
+            }
+        };
+    }
+
+    private static final class Shared {
+        /* package */ static final Scheduler INSTANCE = from(createExecutor());
+
+        @NonNull
+        private static ScheduledExecutorService createExecutor() {
+            final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+                @Override
+                public Thread newThread(@NonNull final Runnable r) {
+                    final Thread thread = new Thread(r, "autoproxy-scheduler");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            executor.setRemoveOnCancelPolicy(true);
+
+            return executor;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.olku.runtime;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Maps shard key to index of the shard. Primitive keys hashed without boxing. {@link #CONSISTENT} strategy
+ * uses jump consistent hash (Lamping, Veach): on growth of shards number only 1/N of keys move.
+ */
+public final class ShardRouter {
+    /** Mixed hash modulo number of shards. */
+    public static final int MODULO = 0;
+    /** Jump consistent hash, minimal movement of keys on resize. */
+    public static final int CONSISTENT = 1;
+
+    private final int shards;
+    private final int strategy;
+
+    /**
+     * Main constructor.
+     *
+     * @param shards   number of shards
+     * @param strategy mapping strategy: {@link #MODULO} or {@link #CONSISTENT}
+     */
+    public ShardRouter(final int shards, final int strategy) {
+        if (shards < 1 || (MODULO != strategy && CONSISTENT != strategy)) {
+            throw new IllegalArgumentException("shards: " + shards + ", strategy: " + strategy);
+        }
+
+        this.shards = shards;
+        this.strategy = strategy;
+    }
+
+    /** Shard of the primitive key. */
+    public int shardOf(final long key) {
+        final long hash = mix(key);
+
+        if (CONSISTENT == strategy) return jump(hash, shards);
+
+        return (int) ((hash & Long.MAX_VALUE) % shards);
+    }
+
+    /** Shard of the primitive key. */
+    public int shardOf(final int key) {
+        return shardOf((long) key);
+    }
+
+    /** Shard of the key by its hash code, NULL key goes to the shard of zero. */
+    public int shardOf(@Nullable final Object key) {
+        return shardOf((long) (null == key ? 0 : key.hashCode()));
+    }
+
+    /** Number of shards. */
+    public int size() {
+        return shards;
+    }
+
+    //region Implementation
+    private static long mix(final long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        h *= 0xD6E8FEB86659FD93L;
+
+        return h ^ (h >>> 32);
+    }
+
+    private static int jump(long key, final int buckets) {
+        long b = -1, j = 0;
+
+        while (j < buckets) {
+            b = j;
+            key = key * 2862933555777941757L + 1;
+            j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+
+        return (int) b;
+    }
+    //endregion
+}
@@ -0,0 +1,124 @@
+package com.olku.runtime;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RequiresApi;
+
+/**
+ * Deduplication of concurrent identical calls: while call with the same key is in flight, other callers
+ * wait for its result or exception instead of repeating the call. Synchronous calls do not depend on
+ * CompletableFuture and work on any Android API level.
+ */
+public final class SingleFlight {
+    /** Key of the calls with NULL argument. */
+    private static final Object NULL_KEY = new Object();
+
+    private final ConcurrentHashMap<Object, FutureTask<Object>> calls = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Object, CompletableFuture<Object>> futures = new ConcurrentHashMap<>();
+    private final StripedCounter shared = new StripedCounter();
+
+    /**
+     * Execute call or join the same call in flight. Exceptions of the call re-thrown as is to all callers.
+     *
+     * @param key  key of the call, e.g. argument or {@link ResultCache#key(Object...)}
+     * @param call the call
+     * @param <R>  type of the result
+     * @return result of the call
+     */
+    @SuppressWarnings("unchecked")
+    public <R> R call(@Nullable final Object key, @NonNull final Callable<R> call) {
+        final FutureTask<Object> mine = new FutureTask<>((Callable<Object>) call);
+        final Object k = null == key ? NULL_KEY : key;
+        final FutureTask<Object> existing = calls.putIfAbsent(k, mine);
+
+        if (null != existing) {
+            shared.increment();
+            return (R) join(existing);
+        }
+
+        try {
+            mine.run();
+        } finally {
+            calls.remove(k, mine);
+        }
+
+        return (R) join(mine);
+    }
+
+    /**
+     * Start asynchronous call or join the same call in flight. All callers receive the same future instance.
+     *
+     * @param key   key of the call
+     * @param start starter of the call
+     * @param <R>   type of the result
+     * @return future shared by all callers of the key
+     */
+    @NonNull
+    @RequiresApi(24)
+    @SuppressWarnings("unchecked")
+    public <R> CompletableFuture<R> async(@Nullable final Object key,
+                                          @NonNull final Supplier<CompletableFuture<R>> start) {
+        final CompletableFuture<Object> mine = new CompletableFuture<>();
+        final Object k = null == key ? NULL_KEY : key;
+        final CompletableFuture<Object> existing = futures.putIfAbsent(k, mine);
+
+        if (null != existing) {
+            shared.increment();
+            return (CompletableFuture<R>) (CompletableFuture<?>) existing;
+        }
+
+        try {
+            start.get().whenComplete((result, error) -> {
+                futures.remove(k, mine);
+
+                if (null != error) {
+                    mine.completeExceptionally(error);
+                } else {
+                    mine.complete(result);
+                }
+            });
+        } catch (final Throwable error) {
+            futures.remove(k, mine);
+            mine.completeExceptionally(error);
+        }
+
+        return (CompletableFuture<R>) (CompletableFuture<?>) mine;
+    }
+
+    /** Number of calls in flight. */
+    public int inFlight() {
+        return calls.size() + futures.size();
+    }
+
+    /** Number of calls that joined call in flight. */
+    public long shared() {
+        return shared.sum();
+    }
+
+    //region Implementation
+    private static Object join(@NonNull final Future<Object> future) {
+        try {
+            return future.get();
+        } catch (final ExecutionException ex) {
+            throw SingleFlight.<RuntimeException>sneaky(ex.getCause());
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException(ex);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Throwable> T sneaky(@NonNull final Throwable error) throws T {
+        throw (T) error;
+    }
+    //endregion
+}
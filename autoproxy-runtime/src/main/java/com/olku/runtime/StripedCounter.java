@@ -0,0 +1,46 @@
+package com.olku.runtime;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Striped counter that does not depend on {@code LongAdder} (Android API 24). Each thread updates own
+ * cell selected by thread id, cells padded to separate cache lines. Sum is not an atomic snapshot.
+ */
+/* package */ final class StripedCounter {
+    /** Longs per cell, one cache line. */
+    private static final int PAD = 8;
+    /** Number of cells, power of two not less than number of processors, up to 64. */
+    private static final int STRIPES = Math.min(64,
+            Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)));
+
+    private final AtomicLongArray cells = new AtomicLongArray(STRIPES * PAD);
+
+    /* package */ void add(final long delta) {
+        cells.addAndGet(index(), delta);
+    }
+
+    /* package */ void increment() {
+        add(1);
+    }
+
+    /* package */ void decrement() {
+        add(-1);
+    }
+
+    /* package */ long sum() {
+        long sum = 0;
+        for (int i = 0; i < STRIPES; i++) sum += cells.get(i * PAD);
+
+        return sum;
+    }
+
+    /** Reset cells to zero, updates concurrent with reset can be lost. */
+    /* package */ void reset() {
+        for (int i = 0; i < STRIPES; i++) cells.set(i * PAD, 0);
+    }
+
+    private static int index() {
+        // sequential thread ids spread over cells
+        return ((int) Thread.currentThread().getId() & (STRIPES - 1)) * PAD;
+    }
+}
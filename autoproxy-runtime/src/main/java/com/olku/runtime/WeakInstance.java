@@ -0,0 +1,59 @@
+package com.olku.runtime;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Weak reference on inner instance with optional callback on collection of the referent. Callbacks are
+ * executed on shared daemon thread that waits on reference queue, the thread started on first use.
+ */
+public final class WeakInstance<T> extends WeakReference<T> {
+    private final Runnable onCollected;
+
+    /**
+     * Main constructor.
+     *
+     * @param referent    inner instance
+     * @param onCollected callback executed after collection of the referent
+     */
+    public WeakInstance(@NonNull final T referent, @Nullable final Runnable onCollected) {
+        super(referent, null == onCollected ? null : Collector.QUEUE);
+
+        this.onCollected = onCollected;
+    }
+
+    //region Implementation
+    private static final class Collector implements Runnable {
+        /* package */ static final ReferenceQueue<Object> QUEUE = new ReferenceQueue<>();
+
+        static {
+            final Thread thread = new Thread(new Collector(), "autoproxy-collector");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        @Override
+        public void run() {
+            for (; ; ) {
+                final Reference<?> reference;
+                try {
+                    reference = QUEUE.remove();
+                } catch (final InterruptedException ignored) {
+                    continue;
+                }
+
+                try {
+                    ((WeakInstance<?>) reference).onCollected.run();
+                } catch (final Throwable error) {
+                    final Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, error);
+                }
+            }
+        }
+    }
+    //endregion
+}
@@ -0,0 +1,49 @@
+package com.olku.runtime;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BalancerTest {
+    @Test
+    public void testRoundRobinSkipsUnhealthy() {
+        final Balancer balancer = new Balancer(3, Balancer.ROUND_ROBIN);
+        balancer.setHealthy(1, false);
+
+        assertEquals(0, balancer.acquire());
+        assertEquals(2, balancer.acquire());
+        assertEquals(2, balancer.acquire());
+        assertEquals(0, balancer.acquire());
+    }
+
+    @Test
+    public void testLeastLoadedPrefersIdle() {
+        final Balancer balancer = new Balancer(2, Balancer.LEAST_LOADED);
+
+        final int busy = balancer.acquire();
+        for (int i = 0; i < 10; i++) {
+            final int index = balancer.acquire();
+            assertNotEquals(busy, index);
+            balancer.release(index);
+        }
+
+        balancer.release(busy);
+        assertEquals(0, balancer.inFlight(busy));
+    }
+
+    @Test
+    public void testStickyPerThread() {
+        final Balancer balancer = new Balancer(8, Balancer.STICKY);
+        final int index = balancer.acquire();
+
+        for (int i = 0; i < 10; i++) assertEquals(index, balancer.acquire());
+    }
+
+    @Test
+    public void testNoHealthyDelegates() {
+        final Balancer balancer = new Balancer(1, Balancer.LEAST_LOADED);
+        balancer.setHealthy(0, false);
+
+        assertEquals(-1, balancer.acquire());
+    }
+}
@@ -0,0 +1,79 @@
+package com.olku.runtime;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class BatcherTest {
+    @Test
+    public void testFullBatchDeliveredImmediately() {
+        final ManualScheduler scheduler = new ManualScheduler();
+        final List<String> log = new ArrayList<>();
+        final Batcher<Integer> batcher = new Batcher<>(3, 10, record(log));
+
+        batcher.add(1, scheduler);
+        batcher.add(2, scheduler);
+        assertTrue(log.isEmpty());
+
+        batcher.add(3, scheduler);
+        assertEquals("[[1, 2, 3]]", log.toString());
+        assertEquals(0, batcher.pending());
+    }
+
+    @Test
+    public void testPartialBatchDeliveredAfterDelay() {
+        final ManualScheduler scheduler = new ManualScheduler();
+        final List<String> log = new ArrayList<>();
+        final Batcher<Integer> batcher = new Batcher<>(100, 10, record(log));
+
+        batcher.add(1, scheduler);
+        batcher.add(2, scheduler);
+        assertEquals(1, scheduler.pending());
+
+        scheduler.advance(9, TimeUnit.MILLISECONDS);
+        assertTrue(log.isEmpty());
+
+        scheduler.advance(1, TimeUnit.MILLISECONDS);
+        assertEquals("[[1, 2]]", log.toString());
+
+        batcher.add(3, scheduler);
+        scheduler.advance(10, TimeUnit.MILLISECONDS);
+        assertEquals("[[1, 2], [3]]", log.toString());
+    }
+
+    @Test
+    public void testExplicitFlushAndBufferReuse() {
+        final ManualScheduler scheduler = new ManualScheduler();
+        final List<List<Integer>> buffers = new ArrayList<>();
+        final Batcher<Integer> batcher = new Batcher<>(100, 10, new Batcher.Sink<Integer>() {
+            @Override
+            public void accept(final List<Integer> items) {
+                buffers.add(items);
+            }
+        });
+
+        assertEquals(0, batcher.flush());
+
+        for (int i = 0; i < 3; i++) {
+            batcher.add(i, scheduler);
+            assertEquals(1, batcher.flush());
+        }
+
+        // two buffers swapped on each delivery
+        assertSame(buffers.get(0), buffers.get(2));
+        assertNotSame(buffers.get(0), buffers.get(1));
+    }
+
+    private static Batcher.Sink<Integer> record(final List<String> log) {
+        return new Batcher.Sink<Integer>() {
+            @Override
+            public void accept(final List<Integer> items) {
+                log.add(items.toString());
+            }
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package com.olku.runtime;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BulkheadTest {
+    @Test
+    public void testPermitsLimitedAndReturned() {
+        final Bulkhead bulkhead = new Bulkhead(2);
+
+        assertTrue(bulkhead.tryAcquire());
+        assertTrue(bulkhead.tryAcquire());
+        assertFalse(bulkhead.tryAcquire());
+        assertEquals(2, bulkhead.active());
+        assertEquals(1, bulkhead.rejected());
+
+        bulkhead.release();
+        assertTrue(bulkhead.tryAcquire());
+    }
+}
@@ -0,0 +1,128 @@
+package com.olku.runtime;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class CircuitBreakerTest {
+    private final ManualClock clock = new ManualClock();
+    private final List<String> changes = new ArrayList<>();
+    private final CircuitBreaker breaker = new CircuitBreaker(0.5, 4, 100, 0,
+            (from, to) -> changes.add(from + "->" + to));
+
+    private void call(final boolean failed) {
+        final CircuitBreaker.Generation admitted = breaker.allow(clock.nanoTime());
+        assertNotNull(admitted);
+        breaker.complete(admitted, clock.nanoTime(), clock.nanoTime(), failed);
+    }
+
+    @Test
+    public void testOpensOnFullWindowOfFailures() {
+        call(true);
+        call(true);
+        call(false);
+        assertEquals(CircuitBreaker.CLOSED, breaker.state());
+
+        call(false);
+        assertEquals(CircuitBreaker.OPEN, breaker.state());
+        assertNull(breaker.allow(clock.nanoTime()));
+        assertEquals(1, breaker.rejected());
+    }
+
+    @Test
+    public void testHalfOpenProbe() {
+        for (int i = 0; i < 4; i++) call(true);
+        assertEquals(CircuitBreaker.OPEN, breaker.state());
+
+        clock.advance(100, TimeUnit.MILLISECONDS);
+        final CircuitBreaker.Generation probe = breaker.allow(clock.nanoTime());
+        assertNotNull(probe);
+        assertNull("only one probe", breaker.allow(clock.nanoTime()));
+
+        breaker.complete(probe, clock.nanoTime(), clock.nanoTime(), true);
+        assertEquals(CircuitBreaker.OPEN, breaker.state());
+
+        clock.advance(100, TimeUnit.MILLISECONDS);
+        call(false);
+        assertEquals(CircuitBreaker.CLOSED, breaker.state());
+        assertEquals(0, breaker.failures());
+
+        assertEquals("[0->1, 1->2, 2->1, 1->2, 2->0]", changes.toString());
+    }
+
+    @Test
+    public void testSlowCallsCountAsFailures() {
+        final CircuitBreaker slow = new CircuitBreaker(1, 1, 100, 10, null);
+
+        slow.complete(slow.allow(0), 0, TimeUnit.MILLISECONDS.toNanos(11), false);
+        assertEquals(CircuitBreaker.OPEN, slow.state());
+    }
+
+    @Test
+    public void testCompletionsOverlappedByOpeningDropped() throws Exception {
+        for (int attempt = 0; attempt < 200; attempt++) {
+            final CircuitBreaker racy = new CircuitBreaker(0.5, 2, 100, 0, null);
+            final CountDownLatch start = new CountDownLatch(1);
+            final Thread[] threads = new Thread[4];
+
+            for (int t = 0; t < threads.length; t++) {
+                threads[t] = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (final InterruptedException ignored) {
+                        return;
+                    }
+
+                    for (int i = 0; i < 100; i++) {
+                        final CircuitBreaker.Generation admitted = racy.allow(0);
+                        if (null != admitted) racy.complete(admitted, 0, 0, true);
+                    }
+                });
+                threads[t].start();
+            }
+
+            start.countDown();
+            for (final Thread thread : threads) thread.join();
+
+            // close circuit by probe, window of the new generation is empty
+            assertEquals(CircuitBreaker.OPEN, racy.state());
+            final CircuitBreaker.Generation probe = racy.allow(TimeUnit.MILLISECONDS.toNanos(100));
+            assertNotNull(probe);
+            racy.complete(probe, 0, 0, false);
+
+            assertEquals(CircuitBreaker.CLOSED, racy.state());
+            assertEquals(0, racy.failures());
+
+            racy.complete(racy.allow(0), 0, 0, true);
+            assertEquals(1, racy.failures());
+        }
+    }
+
+    @Test
+    public void testSlowCallOfClosedCircuitDoesNotDecideProbe() {
+        final CircuitBreaker single = new CircuitBreaker(1, 1, 100, 0, (from, to) -> changes.add(from + "->" + to));
+
+        // slow call admitted while closed, still running
+        final CircuitBreaker.Generation slow = single.allow(clock.nanoTime());
+        assertNotNull(slow);
+
+        single.complete(single.allow(clock.nanoTime()), clock.nanoTime(), clock.nanoTime(), true);
+        assertEquals(CircuitBreaker.OPEN, single.state());
+
+        clock.advance(100, TimeUnit.MILLISECONDS);
+        final CircuitBreaker.Generation probe = single.allow(clock.nanoTime());
+        assertNotNull(probe);
+
+        single.complete(slow, clock.nanoTime(), clock.nanoTime(), false);
+        assertEquals("stale outcome ignored", CircuitBreaker.HALF_OPEN, single.state());
+
+        single.complete(probe, clock.nanoTime(), clock.nanoTime(), false);
+        assertEquals(CircuitBreaker.CLOSED, single.state());
+        assertEquals("[0->1, 1->2, 2->0]", changes.toString());
+    }
+}
@@ -0,0 +1,71 @@
+package com.olku.runtime;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class CoalescerTest {
+    @Test
+    public void testOnlyLatestCallDelivered() {
+        final ManualScheduler scheduler = new ManualScheduler();
+        final Coalescer coalescer = new Coalescer(10);
+        final StringBuilder log = new StringBuilder();
+
+        coalescer.submit(append(log, "a"), scheduler);
+        coalescer.submit(append(log, "b"), scheduler);
+        coalescer.submit(append(log, "c"), scheduler);
+        assertEquals(1, scheduler.pending());
+
+        scheduler.advance(9, TimeUnit.MILLISECONDS);
+        assertEquals("", log.toString());
+
+        scheduler.advance(1, TimeUnit.MILLISECONDS);
+        assertEquals("c", log.toString());
+    }
+
+    @Test
+    public void testNextWindowAfterDelivery() {
+        final ManualScheduler scheduler = new ManualScheduler();
+        final Coalescer coalescer = new Coalescer(10);
+        final StringBuilder log = new StringBuilder();
+
+        coalescer.submit(append(log, "a"), scheduler);
+        scheduler.advance(10, TimeUnit.MILLISECONDS);
+
+        coalescer.submit(append(log, "b"), scheduler);
+        scheduler.advance(10, TimeUnit.MILLISECONDS);
+
+        assertEquals("ab", log.toString());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(20), scheduler.nanoTime());
+    }
+
+    @Test
+    public void testDeliveringOnlyDuringDelivery() {
+        final ManualScheduler scheduler = new ManualScheduler();
+        final Coalescer coalescer = new Coalescer(10);
+        final boolean[] delivering = new boolean[1];
+
+        coalescer.submit(new Runnable() {
+            @Override
+            public void run() {
+                delivering[0] = coalescer.isDelivering();
+            }
+        }, scheduler);
+        assertFalse(coalescer.isDelivering());
+
+        scheduler.advance(10, TimeUnit.MILLISECONDS);
+        assertTrue(delivering[0]);
+        assertFalse(coalescer.isDelivering());
+    }
+
+    private static Runnable append(final StringBuilder log, final String value) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                log.append(value);
+            }
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package com.olku.runtime;
+
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class DeadlineTest {
+    @Test
+    public void testResultInTime() {
+        assertEquals(42, Deadline.call(Deadline.shared(), () -> 42, 1000));
+        assertEquals(Long.MAX_VALUE, Deadline.remainingNanos());
+    }
+
+    @Test
+    public void testTimeoutCancelsCall() throws Exception {
+        final CountDownLatch interrupted = new CountDownLatch(1);
+
+        final Object result = Deadline.call(Deadline.shared(), () -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (final InterruptedException ex) {
+                interrupted.countDown();
+            }
+            return 1;
+        }, 10);
+
+        assertSame(Deadline.TIMEOUT, result);
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testDeadlinePropagatedToNestedCalls() {
+        final Object result = Deadline.call(Runnable::run, (Callable<Object>) () -> {
+            assertTrue(Deadline.remainingNanos() <= TimeUnit.MILLISECONDS.toNanos(1000));
+
+            // nested timeout cannot extend inherited deadline
+            return Deadline.call(Runnable::run, Deadline::remainingNanos, 60_000);
+        }, 1000);
+
+        assertTrue((Long) result <= TimeUnit.MILLISECONDS.toNanos(1000));
+        assertEquals(Long.MAX_VALUE, Deadline.remainingNanos());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFailureRethrown() {
+        Deadline.call(Deadline.shared(), () -> {
+            throw new IllegalStateException();
+        }, 1000);
+    }
+}
@@ -0,0 +1,63 @@
+package com.olku.runtime;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DeferredCallsTest {
+    @Test
+    public void testLastWriteWinsAndOrderKept() {
+        final DeferredCalls calls = new DeferredCalls(3);
+        final StringBuilder log = new StringBuilder();
+
+        calls.defer(0, append(log, "a1"));
+        calls.defer(2, append(log, "c1"));
+        calls.defer(0, append(log, "a2"));
+
+        assertEquals(2, calls.pending());
+        assertEquals(2, calls.flush());
+        assertEquals("c1a2", log.toString());
+        assertEquals(0, calls.pending());
+    }
+
+    @Test
+    public void testOrderAcrossSlots() {
+        final DeferredCalls calls = new DeferredCalls(7);
+        final StringBuilder log = new StringBuilder();
+
+        calls.defer(6, append(log, "g"));
+        calls.defer(1, append(log, "b"));
+        calls.defer(4, append(log, "e"));
+        calls.defer(6, append(log, "G"));
+        calls.defer(0, append(log, "a"));
+
+        assertEquals(4, calls.flush());
+        assertEquals("beGa", log.toString());
+
+        // slots reused after flush
+        calls.defer(6, append(log, "-"));
+        assertEquals(1, calls.flush());
+        assertEquals("beGa-", log.toString());
+    }
+
+    @Test
+    public void testClear() {
+        final DeferredCalls calls = new DeferredCalls(1);
+        final StringBuilder log = new StringBuilder();
+
+        calls.defer(0, append(log, "a"));
+        calls.clear();
+
+        assertEquals(0, calls.flush());
+        assertEquals("", log.toString());
+    }
+
+    private static Runnable append(final StringBuilder log, final String value) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                log.append(value);
+            }
+        };
+    }
+}
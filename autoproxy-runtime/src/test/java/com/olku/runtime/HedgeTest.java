@@ -0,0 +1,57 @@
+package com.olku.runtime;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class HedgeTest {
+    private final Hedge hedge = new Hedge(20);
+
+    @Test
+    public void testFastPrimaryDoesNotFire() {
+        assertEquals("primary", hedge.call(Deadline.shared(), () -> "primary", () -> "secondary"));
+        assertEquals(0, hedge.fired());
+    }
+
+    @Test
+    public void testSlowPrimaryLosesAndCanceled() throws Exception {
+        final CountDownLatch interrupted = new CountDownLatch(1);
+
+        final String result = hedge.call(Deadline.shared(), () -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (final InterruptedException ex) {
+                interrupted.countDown();
+            }
+            return "primary";
+        }, () -> "secondary");
+
+        assertEquals("secondary", result);
+        assertEquals(1, hedge.fired());
+        assertEquals(1, hedge.won());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testFailedSecondaryFallsBackToPrimary() {
+        final String result = hedge.call(Deadline.shared(), () -> {
+            Thread.sleep(100);
+            return "primary";
+        }, () -> {
+            throw new IllegalStateException();
+        });
+
+        assertEquals("primary", result);
+        assertEquals(0, hedge.won());
+    }
+
+    @Test
+    public void testWithoutSecondaryCalledInPlace() {
+        final Thread caller = Thread.currentThread();
+
+        assertSame(caller, hedge.call(Deadline.shared(), Thread::currentThread, null));
+    }
+}
@@ -0,0 +1,236 @@
+package com.olku.runtime;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class MailboxTest {
+    @Test
+    public void testMessagesFromManyProducers() throws Exception {
+        final Mailbox mailbox = new Mailbox(16, Mailbox.BLOCK);
+        final int[] counter = {0};
+        final Thread[] producers = new Thread[4];
+
+        for (int i = 0; i < producers.length; i++) {
+            producers[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 10000; j++) {
+                        mailbox.post(new Runnable() {
+                            @Override
+                            public void run() {
+                                counter[0]++; // single consumer, no synchronization required
+                            }
+                        });
+                    }
+                }
+            });
+            producers[i].start();
+        }
+
+        for (final Thread producer : producers) producer.join();
+
+        final int total = mailbox.call(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return counter[0];
+            }
+        });
+
+        assertEquals(40000, total);
+        assertEquals(40001, mailbox.posted());
+        mailbox.close();
+    }
+
+    @Test
+    public void testYieldPolicyRejectsOnFullQueue() throws Exception {
+        final Mailbox mailbox = new Mailbox(2, Mailbox.YIELD);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        mailbox.post(new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                await(release);
+            }
+        });
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+
+        assertTrue(mailbox.post(noop()));
+        assertTrue(mailbox.post(noop()));
+        assertFalse(mailbox.post(noop()));
+        assertEquals(1, mailbox.rejected());
+        assertEquals(2, mailbox.depth());
+
+        release.countDown();
+        mailbox.close();
+    }
+
+    @Test
+    public void testDropPolicyCountsDropped() throws Exception {
+        final Mailbox mailbox = new Mailbox(2, Mailbox.DROP);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger executed = new AtomicInteger();
+
+        mailbox.post(new Runnable() {
+            @Override
+            public void run() {
+                await(release);
+            }
+        });
+
+        for (int i = 0; i < 10; i++) {
+            mailbox.post(new Runnable() {
+                @Override
+                public void run() {
+                    executed.incrementAndGet();
+                }
+            });
+        }
+
+        assertTrue(mailbox.dropped() >= 7);
+        release.countDown();
+        mailbox.close();
+    }
+
+    @Test
+    public void testClosedMailboxRejectsMessages() throws Exception {
+        final Mailbox mailbox = new Mailbox(2, Mailbox.BLOCK);
+        final AtomicInteger executed = new AtomicInteger();
+
+        mailbox.post(new Runnable() {
+            @Override
+            public void run() {
+                executed.incrementAndGet();
+            }
+        });
+        mailbox.close();
+
+        assertFalse(mailbox.post(noop()));
+        assertEquals(1, mailbox.rejected());
+
+        try {
+            mailbox.call(new Callable<Integer>() {
+                @Override
+                public Integer call() {
+                    return 1;
+                }
+            });
+            fail("closed mailbox executes calls");
+        } catch (final RejectedExecutionException ignored) {
+            // expected
+        }
+
+        try {
+            mailbox.execute(noop());
+            fail("closed mailbox executes commands");
+        } catch (final RejectedExecutionException ignored) {
+            // expected
+        }
+
+        // already posted message processed
+        for (int i = 0; i < 100 && executed.get() == 0; i++) Thread.sleep(10);
+        assertEquals(1, executed.get());
+    }
+
+    @Test
+    public void testConsumerPostToFullQueueKeepsOrder() throws Exception {
+        final Mailbox mailbox = new Mailbox(2, Mailbox.BLOCK);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<String> order = new ArrayList<>();
+
+        mailbox.post(new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                await(release);
+                order.add("first");
+
+                // queue is full, consumer cannot wait for itself
+                mailbox.post(record(order, "fourth"));
+            }
+        });
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+
+        mailbox.post(record(order, "second"));
+        mailbox.post(record(order, "third"));
+        release.countDown();
+
+        final String result = mailbox.call(new Callable<String>() {
+            @Override
+            public String call() {
+                return order.toString();
+            }
+        });
+
+        assertEquals("[first, second, third, fourth]", result);
+        assertEquals(0, mailbox.depth());
+        mailbox.close();
+    }
+
+    @Test
+    public void testIdleMailboxHoldsNoThread() throws Exception {
+        final List<Thread> threads = new CopyOnWriteArrayList<>();
+        final Mailbox mailbox = new Mailbox(16, Mailbox.BLOCK, new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                final Thread thread = new Thread(command);
+                threads.add(thread);
+                thread.start();
+            }
+        });
+        final Callable<Integer> one = new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return 1;
+            }
+        };
+
+        assertEquals(1, (int) mailbox.call(one));
+        threads.get(0).join(1000);
+        assertFalse(threads.get(0).isAlive());
+
+        // next message schedules new drain
+        assertEquals(1, (int) mailbox.call(one));
+        assertEquals(2, threads.size());
+        threads.get(1).join(1000);
+        assertFalse(threads.get(1).isAlive());
+    }
+
+    private static Runnable record(final List<String> order, final String name) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                order.add(name);
+            }
+        };
+    }
+
+    private static Runnable noop() {
+        return new Runnable() {
+            @Override
+            public void run() {
+            }
+        };
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
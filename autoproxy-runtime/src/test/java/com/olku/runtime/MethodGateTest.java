@@ -0,0 +1,59 @@
+package com.olku.runtime;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MethodGateTest {
+    @Test
+    public void testDisableAndEnable() {
+        final MethodGate gate = new MethodGate(70, false);
+
+        assertEquals(MethodGate.ASK, gate.state().decide(0));
+        assertEquals(MethodGate.ASK, gate.state().decide(69));
+
+        gate.disable(69);
+        assertEquals(MethodGate.DENY, gate.state().decide(69));
+        assertEquals(MethodGate.ASK, gate.state().decide(5));
+
+        gate.enableAll();
+        assertEquals(MethodGate.ASK, gate.state().decide(69));
+    }
+
+    @Test
+    public void testClosedGateDeniesAll() {
+        final MethodGate gate = new MethodGate(3, false);
+
+        gate.setGate(false);
+        assertEquals(MethodGate.DENY, gate.state().decide(1));
+
+        gate.setGate(true);
+        assertEquals(MethodGate.ASK, gate.state().decide(1));
+    }
+
+    @Test
+    public void testCachedDecisionTillInvalidate() {
+        final MethodGate gate = new MethodGate(3, true);
+
+        assertTrue(gate.remember(gate.state(), 1, true));
+        assertFalse(gate.remember(gate.state(), 2, false));
+
+        assertEquals(MethodGate.ALLOW, gate.state().decide(1));
+        assertEquals(MethodGate.DENY, gate.state().decide(2));
+
+        gate.invalidate();
+        assertEquals(MethodGate.ASK, gate.state().decide(1));
+        assertEquals(MethodGate.ASK, gate.state().decide(2));
+    }
+
+    @Test
+    public void testOutdatedDecisionNotCached() {
+        final MethodGate gate = new MethodGate(3, true);
+
+        final MethodGate.State seen = gate.state();
+        gate.invalidate();
+
+        assertTrue(gate.remember(seen, 1, true));
+        assertEquals(MethodGate.ASK, gate.state().decide(1));
+    }
+}
@@ -0,0 +1,50 @@
+package com.olku.runtime;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ProxyMetricsTest {
+    @Test
+    public void testBucketsCoverDurations() {
+        for (long nanos : new long[]{0, 1, 3, 4, 7, 8, 1000, 123_456_789L, Long.MAX_VALUE}) {
+            final int bucket = ProxyMetrics.bucketOf(nanos);
+
+            assertTrue(bucket < ProxyMetrics.BUCKETS);
+            assertTrue(nanos <= ProxyMetrics.upperBoundOf(bucket));
+            assertTrue(0 == bucket || nanos > ProxyMetrics.upperBoundOf(bucket - 1));
+        }
+    }
+
+    @Test
+    public void testCountersPerOrdinal() {
+        final ProxyMetrics metrics = new ProxyMetrics("first", "second");
+
+        metrics.record(0, ProxyMetrics.start());
+        metrics.record(0, ProxyMetrics.start());
+        metrics.rejected(1);
+        metrics.error(1);
+        metrics.record(1, ProxyMetrics.start());
+
+        final ProxyMetrics.Snapshot first = metrics.snapshot(0);
+        assertEquals("first", first.name);
+        assertEquals(2, first.calls);
+        assertEquals(0, first.rejected);
+
+        final ProxyMetrics.Snapshot second = metrics.snapshot(1);
+        assertEquals(1, second.calls);
+        assertEquals(1, second.rejected);
+        assertEquals(1, second.errors);
+        assertEquals(1, sum(second.buckets()));
+
+        metrics.reset();
+        assertEquals(0, metrics.snapshot(0).calls);
+        assertEquals(0, metrics.snapshot(0).percentile(0.5));
+    }
+
+    private static long sum(final long[] values) {
+        long total = 0;
+        for (final long value : values) total += value;
+        return total;
+    }
+}
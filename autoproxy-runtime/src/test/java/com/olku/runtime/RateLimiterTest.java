@@ -0,0 +1,31 @@
+package com.olku.runtime;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class RateLimiterTest {
+    @Test
+    public void testBurstThenRate() {
+        final ManualClock clock = new ManualClock();
+        final RateLimiter limiter = new RateLimiter(10, 2);
+
+        assertTrue(limiter.tryAcquire(clock.nanoTime()));
+        assertTrue(limiter.tryAcquire(clock.nanoTime()));
+        assertFalse(limiter.tryAcquire(clock.nanoTime()));
+
+        clock.advance(100, TimeUnit.MILLISECONDS);
+        assertTrue(limiter.tryAcquire(clock.nanoTime()));
+        assertFalse(limiter.tryAcquire(clock.nanoTime()));
+
+        // idle time refills bucket only up to burst
+        clock.advance(10, TimeUnit.SECONDS);
+        assertTrue(limiter.tryAcquire(clock.nanoTime()));
+        assertTrue(limiter.tryAcquire(clock.nanoTime()));
+        assertFalse(limiter.tryAcquire(clock.nanoTime()));
+
+        assertEquals(3, limiter.rejected());
+    }
+}
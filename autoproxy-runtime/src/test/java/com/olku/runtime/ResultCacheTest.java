@@ -0,0 +1,105 @@
+package com.olku.runtime;
+
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ResultCacheTest {
+    @Test
+    public void testLeastRecentlyUsedEvicted() {
+        final LongResultCache cache = new LongResultCache(2, 0);
+
+        cache.put(1, "one", Clock.SYSTEM);
+        cache.put(2, "two", Clock.SYSTEM);
+        assertEquals("one", cache.get(1, Clock.SYSTEM));
+
+        cache.put(3, "three", Clock.SYSTEM);
+        assertSame(ResultCache.MISS, cache.get(2, Clock.SYSTEM));
+        assertEquals("one", cache.get(1, Clock.SYSTEM));
+        assertEquals("three", cache.get(3, Clock.SYSTEM));
+
+        assertEquals(3, cache.hits());
+        assertEquals(1, cache.misses());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testEntriesExpire() {
+        final ManualClock clock = new ManualClock();
+        final ObjectResultCache cache = new ObjectResultCache(10, 100);
+
+        cache.put("key", null, clock);
+        assertNull(cache.get("key", clock));
+
+        clock.advance(100, TimeUnit.MILLISECONDS);
+        assertSame(ResultCache.MISS, cache.get("key", clock));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testMultiParameterKey() {
+        final ObjectResultCache cache = new ObjectResultCache(10, 0);
+
+        cache.put(ResultCache.key("a", 1), 42, Clock.SYSTEM);
+
+        assertEquals(42, cache.get(ResultCache.key("a", 1), Clock.SYSTEM));
+        assertSame(ResultCache.MISS, cache.get(ResultCache.key("a", 2), Clock.SYSTEM));
+    }
+
+    @Test
+    public void testResultOfPreviousEpochDropped() {
+        final ObjectResultCache objects = new ObjectResultCache(10, 0);
+        final LongResultCache longs = new LongResultCache(10, 0);
+
+        final long objectsEpoch = objects.epoch();
+        final long longsEpoch = longs.epoch();
+
+        // invalidation during the call
+        objects.clear();
+        longs.clear();
+
+        assertFalse(objects.put("key", "stale", objectsEpoch, Clock.SYSTEM));
+        assertFalse(longs.put(1, "stale", longsEpoch, Clock.SYSTEM));
+        assertSame(ResultCache.MISS, objects.get("key", Clock.SYSTEM));
+        assertSame(ResultCache.MISS, longs.get(1, Clock.SYSTEM));
+
+        assertTrue(objects.put("key", "fresh", objects.epoch(), Clock.SYSTEM));
+        assertTrue(longs.put(1, "fresh", longs.epoch(), Clock.SYSTEM));
+        assertEquals("fresh", objects.get("key", Clock.SYSTEM));
+        assertEquals("fresh", longs.get(1, Clock.SYSTEM));
+    }
+
+    @Test
+    public void testPrimitiveCacheMatchesLinkedHashMap() {
+        final int capacity = 16;
+        final LongResultCache cache = new LongResultCache(capacity, 0);
+        final Map<Long, Object> expected = new LinkedHashMap<Long, Object>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Long, Object> eldest) {
+                return size() > capacity;
+            }
+        };
+
+        final Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            final long key = random.nextInt(40);
+
+            if (random.nextBoolean()) {
+                cache.put(key, i, Clock.SYSTEM);
+                expected.put(key, i);
+            } else {
+                final Object value = expected.containsKey(key) ? expected.get(key) : ResultCache.MISS;
+                assertEquals(value, cache.get(key, Clock.SYSTEM));
+            }
+        }
+
+        assertEquals(expected.size(), cache.size());
+    }
+}
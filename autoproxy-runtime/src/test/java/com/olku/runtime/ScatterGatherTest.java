@@ -0,0 +1,69 @@
+package com.olku.runtime;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+public class ScatterGatherTest {
+    private static final ScatterGather.Call<Long, Long> SLEEP = new ScatterGather.Call<Long, Long>() {
+        @Override
+        public Long call(final Long delay) throws Exception {
+            if (delay < 0) throw new IOException("failed " + delay);
+
+            Thread.sleep(delay);
+            return delay;
+        }
+    };
+
+    @Test
+    public void testAllResultsInOrderOfDelegates() {
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            final List<Long> results = ScatterGather.gather(executor, new Long[]{30L, 0L, 10L}, SLEEP, 0, false);
+
+            assertEquals(Arrays.asList(30L, 0L, 10L), results);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testDeadlineGivesPartialResults() {
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            final List<Long> results = ScatterGather.gather(executor, new Long[]{10_000L, 0L, -1L}, SLEEP, 200, false);
+
+            assertEquals(Arrays.asList(0L), results);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFirstSuccessfulResult() {
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            final List<Long> results = ScatterGather.gather(executor, new Long[]{10_000L, -1L, 5L}, SLEEP, 0, true);
+
+            assertEquals(Arrays.asList(5L), results);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testFailureWithoutResultsRethrown() {
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            ScatterGather.gather(executor, new Long[]{-1L, -2L}, SLEEP, 0, false);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.olku.runtime;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ShardRouterTest {
+    @Test
+    public void testStableAndInRange() {
+        final ShardRouter router = new ShardRouter(7, ShardRouter.MODULO);
+
+        for (long key = -100; key < 100; key++) {
+            final int shard = router.shardOf(key);
+
+            assertTrue(shard >= 0 && shard < 7);
+            assertEquals(shard, router.shardOf(key));
+        }
+
+        assertEquals(router.shardOf(42L), router.shardOf(42));
+        assertEquals(router.shardOf(0L), router.shardOf((Object) null));
+    }
+
+    @Test
+    public void testConsistentMovesOnlyToNewShard() {
+        final ShardRouter four = new ShardRouter(4, ShardRouter.CONSISTENT);
+        final ShardRouter five = new ShardRouter(5, ShardRouter.CONSISTENT);
+
+        int moved = 0;
+        for (long key = 0; key < 10_000; key++) {
+            final int before = four.shardOf(key), after = five.shardOf(key);
+
+            if (before != after) {
+                assertEquals(4, after);
+                moved++;
+            }
+        }
+
+        // about 1/5 of keys
+        assertTrue(String.valueOf(moved), moved > 1_500 && moved < 2_500);
+    }
+}
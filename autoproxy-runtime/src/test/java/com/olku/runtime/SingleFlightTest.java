@@ -0,0 +1,64 @@
+package com.olku.runtime;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SingleFlightTest {
+    private final SingleFlight flight = new SingleFlight();
+
+    @Test
+    public void testConcurrentCallsShareResult() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1), release = new CountDownLatch(1);
+        final Object[] results = new Object[2];
+
+        final Thread leader = new Thread(() -> results[0] = flight.call("k", () -> {
+            started.countDown();
+            release.await();
+            return calls.incrementAndGet();
+        }));
+        leader.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        final Thread follower = new Thread(() -> results[1] = flight.call("k", calls::incrementAndGet));
+        follower.start();
+
+        // follower joined the call in flight
+        while (0 == flight.shared()) Thread.yield();
+        release.countDown();
+        leader.join();
+        follower.join();
+
+        assertEquals(1, calls.get());
+        assertEquals(1, results[0]);
+        assertEquals(1, results[1]);
+        assertEquals(0, flight.inFlight());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFailureRethrown() {
+        flight.call(1L, () -> {
+            throw new IllegalStateException();
+        });
+    }
+
+    @Test
+    public void testAsyncSharesFuture() {
+        final CompletableFuture<String> source = new CompletableFuture<>();
+
+        final CompletableFuture<String> first = flight.async("k", () -> source);
+        final CompletableFuture<String> second = flight.async("k", () -> CompletableFuture.completedFuture("other"));
+
+        assertSame(first, second);
+
+        source.complete("value");
+        assertEquals("value", first.join());
+        assertEquals(0, flight.inFlight());
+    }
+}
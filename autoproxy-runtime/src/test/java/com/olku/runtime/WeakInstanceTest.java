@@ -0,0 +1,25 @@
+package com.olku.runtime;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class WeakInstanceTest {
+    @Test
+    public void testCallbackAfterCollection() throws Exception {
+        final CountDownLatch collected = new CountDownLatch(1);
+        final WeakInstance<Object> reference = new WeakInstance<>(new Object(), collected::countDown);
+
+        // collection is not guaranteed by single request
+        for (int i = 0; i < 50 && collected.getCount() > 0; i++) {
+            System.gc();
+            collected.await(100, TimeUnit.MILLISECONDS);
+        }
+
+        assertNull(reference.get());
+        assertEquals(0, collected.getCount());
+    }
+}
@@ -0,0 +1,29 @@
+package com.olku.autoproxy.sample;
+
+import com.olku.annotations.AutoProxy;
+import com.olku.annotations.RetBool;
+import com.olku.annotations.RetNumber;
+import com.olku.annotations.Returns;
+
+/** Entrance barrier of the parking, slow remote device. */
+@AutoProxy
+@AutoProxy.Bulkhead(maxConcurrent = 1)
+public interface Barrier {
+    /** Open the lane, throttled. */
+    @AutoProxy.RateLimit(permitsPerSecond = 1, burst = 2)
+    @AutoProxy.Yield(RetBool.FALSE)
+    boolean open(final int lane);
+
+    /** Plate recognized on the lane, read from two cameras. */
+    @AutoProxy.Bulkhead(maxConcurrent = 4)
+    @AutoProxy.Hedge(afterMs = 10)
+    @AutoProxy.Yield(Returns.NULL)
+    String plate(final int lane);
+
+    /** Photo of the lane, concurrent requests share one shot. */
+    @AutoProxy.Bulkhead(maxConcurrent = 4)
+    @AutoProxy.SingleFlight
+    @AutoProxy.AfterCall
+    @AutoProxy.Yield(RetNumber.MINUS_ONE)
+    long photo(final int lane);
+}
@@ -0,0 +1,16 @@
+package com.olku.autoproxy.sample;
+
+import com.olku.annotations.AutoProxy;
+
+import java.util.List;
+
+/** Log of the entered cars, owned by short-living screen. */
+@AutoProxy(weak = true, metrics = true)
+public interface EntryLog {
+    /** Car entered the parking, delivered in batches. */
+    @AutoProxy.Batch(target = "onEntries", maxSize = 3, maxDelayMs = 1000)
+    void onEntry(final String plate);
+
+    /** Batch of the entered cars. */
+    void onEntries(final List<String> plates);
+}
@@ -0,0 +1,11 @@
+package com.olku.autoproxy.sample;
+
+import com.olku.annotations.AutoProxy;
+
+/** Fees of the parking, parameters named like locals of generated code. */
+@AutoProxy
+public interface Fees {
+    /** Fee of the ticket, cached. */
+    @AutoProxy.Cached(maxEntries = 16)
+    String fee(final String key, final int result);
+}
@@ -0,0 +1,12 @@
+package com.olku.autoproxy.sample;
+
+import com.olku.annotations.AutoProxy;
+import com.olku.annotations.RetBool;
+
+/** Parking entrance gateway, calls dispatched to one of replicated gateways. */
+@AutoProxy(pool = true, gate = true)
+public interface Gateway {
+    /** Open barrier for the car, FALSE if barrier was not opened. */
+    @AutoProxy.Yield(RetBool.FALSE)
+    boolean open(final long carId);
+}
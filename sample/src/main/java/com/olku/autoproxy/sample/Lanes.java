@@ -0,0 +1,17 @@
+package com.olku.autoproxy.sample;
+
+import com.olku.annotations.AutoProxy;
+import com.olku.annotations.RetNumber;
+
+/** Entrance lanes of the parking, parameters named like locals of generated fan-out code. */
+@AutoProxy(scatterGather = true, multicast = true, pool = true)
+public interface Lanes {
+    /** Cars waiting on all lanes. */
+    @AutoProxy.Reduce(AutoProxy.Reduce.ALL)
+    @AutoProxy.Multicast(AutoProxy.Multicast.REDUCE)
+    @AutoProxy.Yield(RetNumber.ZERO)
+    int waiting(final int delegate, final int results, final int i, final int len);
+
+    /** Mark the lane. */
+    void mark(final Object args, final boolean ask, final boolean called, final Object value, final int index);
+}
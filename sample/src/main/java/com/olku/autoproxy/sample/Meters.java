@@ -0,0 +1,18 @@
+package com.olku.autoproxy.sample;
+
+import com.olku.annotations.AutoProxy;
+import com.olku.annotations.RetNumber;
+
+/** Meters of the parking, parameters named like locals of generated code. */
+@AutoProxy(metrics = true, gate = true)
+public interface Meters {
+    /** Apply meter. */
+    int apply(final int inner, final long started);
+
+    /** Read meter, limited by timeout and circuit breaker. */
+    @AutoProxy.Timeout(1000)
+    @AutoProxy.CircuitBreaker
+    @AutoProxy.Yield(RetNumber.ZERO)
+    long read(final long startedAt, final boolean failed, final Object outcome, final int decision,
+              final Object gateState, final Object admitted, final Object error, final Object event);
+}
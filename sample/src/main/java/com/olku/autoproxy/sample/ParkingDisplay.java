@@ -0,0 +1,21 @@
+package com.olku.autoproxy.sample;
+
+import com.olku.annotations.AutoProxy;
+import com.olku.annotations.RetBool;
+
+/** Display of the parking entrance, survives recreation of the screen. */
+@AutoProxy(hooks = true, gate = true, cachePredicate = true, rebindable = true)
+public interface ParkingDisplay {
+    /** Number of free spots, the last value shown after re-attach. */
+    @AutoProxy.Defer
+    void showFree(final int free);
+
+    /** Progress of the barrier opening, bursts coalesced. */
+    @AutoProxy.Coalesce(windowMs = 50)
+    void showProgress(final int percent);
+
+    /** Blink the lamp, TRUE - lamp is working. */
+    @AutoProxy.Yield(RetBool.FALSE)
+    @AutoProxy.AfterCall
+    boolean blink(final int times);
+}
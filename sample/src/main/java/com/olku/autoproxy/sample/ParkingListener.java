@@ -0,0 +1,16 @@
+package com.olku.autoproxy.sample;
+
+import com.olku.annotations.AutoProxy;
+import com.olku.annotations.RetBool;
+
+/** Abstract class listener, events broadcast to all subscribers. */
+@AutoProxy(multicast = true)
+public abstract class ParkingListener {
+    /** Delivered to all subscribers. */
+    public abstract void onSpotTaken(final int spot);
+
+    /** First allowed subscriber answers, FALSE if no one allowed. */
+    @AutoProxy.Multicast(AutoProxy.Multicast.FIRST)
+    @AutoProxy.Yield(RetBool.FALSE)
+    public abstract boolean onSpotRequested(final int spot);
+}
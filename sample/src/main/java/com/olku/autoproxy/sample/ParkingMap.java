@@ -0,0 +1,12 @@
+package com.olku.autoproxy.sample;
+
+import com.olku.annotations.AutoProxy;
+import com.olku.annotations.RetNumber;
+
+/** Map of the parking, heavy to load, created on first use. */
+@AutoProxy(lazy = true)
+public interface ParkingMap {
+    /** Number of levels. */
+    @AutoProxy.Yield(RetNumber.ZERO)
+    int levels();
+}
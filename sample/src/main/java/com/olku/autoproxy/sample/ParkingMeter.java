@@ -0,0 +1,22 @@
+package com.olku.autoproxy.sample;
+
+import com.olku.annotations.AutoProxy;
+import com.olku.annotations.RetNumber;
+
+/** Parking meter, remote calls executed asynchronously. Async variant requires API 24. */
+@AutoProxy(async = true)
+public interface ParkingMeter {
+    /** Minutes left on the spot. */
+    @AutoProxy.Yield(RetNumber.ZERO)
+    @AutoProxy.AfterCall
+    int minutesLeft(final int spot);
+
+    /** Receipt of the spot. */
+    @AutoProxy.AfterCall
+    @AutoProxy.SingleFlight
+    String receipt(final int spot);
+
+    /** Pay for the spot. */
+    @AutoProxy.AfterCall
+    void pay(final int spot, final long amount);
+}
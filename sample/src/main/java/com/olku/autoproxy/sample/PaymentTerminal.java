@@ -0,0 +1,14 @@
+package com.olku.autoproxy.sample;
+
+import com.olku.annotations.AutoProxy;
+import com.olku.annotations.RetBool;
+
+/** Remote payment terminal of the parking, can hang. */
+@AutoProxy(metrics = true)
+public interface PaymentTerminal {
+    /** Charge parking fee, FALSE if terminal did not answer in time or circuit is open. */
+    @AutoProxy.Timeout(50)
+    @AutoProxy.CircuitBreaker(failureRatio = 1, window = 2, openMs = 60_000)
+    @AutoProxy.Yield(RetBool.FALSE)
+    boolean charge(final long delayMs);
+}
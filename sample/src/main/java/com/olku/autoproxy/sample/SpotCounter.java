@@ -0,0 +1,13 @@
+package com.olku.autoproxy.sample;
+
+import com.olku.annotations.AutoProxy;
+
+/** Not thread-safe counter of occupied spots, calls serialized by actor mailbox. */
+@AutoProxy(actor = true)
+public interface SpotCounter {
+    /** Spot occupied by car. */
+    void occupy(final int spot);
+
+    /** Number of occupied spots. */
+    int occupied();
+}
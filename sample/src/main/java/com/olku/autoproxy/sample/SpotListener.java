@@ -0,0 +1,20 @@
+package com.olku.autoproxy.sample;
+
+import com.olku.annotations.AutoProxy;
+import com.olku.annotations.RetNumber;
+
+/** Listener of parking spots, broadcast with typed per-subscriber hooks and methods gate. */
+@AutoProxy(multicast = true, hooks = true, gate = true)
+public interface SpotListener {
+    /** Delivered to all allowed subscribers. */
+    void onSpotFreed(final int spot);
+
+    /** Sum of free spots reported by subscribers, ZERO if no one allowed. */
+    @AutoProxy.Multicast(AutoProxy.Multicast.REDUCE)
+    @AutoProxy.Yield(RetNumber.ZERO)
+    int freeSpots(final int level);
+
+    /** Answer of the last allowed subscriber. */
+    @AutoProxy.Yield(RetNumber.MINUS_ONE)
+    long lastVisit(final int spot);
+}
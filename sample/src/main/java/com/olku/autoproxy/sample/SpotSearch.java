@@ -0,0 +1,18 @@
+package com.olku.autoproxy.sample;
+
+import com.olku.annotations.AutoProxy;
+import com.olku.annotations.RetNumber;
+
+/** Search of free spots over independent parking levels, levels are asked in parallel. */
+@AutoProxy(scatterGather = true, gate = true)
+public abstract class SpotSearch {
+    /** Total number of free spots on all levels. */
+    @AutoProxy.Reduce(AutoProxy.Reduce.ALL)
+    @AutoProxy.Yield(RetNumber.ZERO)
+    public abstract int freeSpots();
+
+    /** Any level that has a free spot answers. */
+    @AutoProxy.Reduce(AutoProxy.Reduce.FIRST)
+    @AutoProxy.Yield(RetNumber.MINUS_ONE)
+    public abstract int anyFreeSpot();
+}
@@ -0,0 +1,15 @@
+package com.olku.autoproxy.sample;
+
+import com.olku.annotations.AutoProxy;
+
+/** Parking tariffs, prices are cached until tariff change. */
+@AutoProxy
+public interface Tariffs {
+    /** Price of the hour on level, cached. */
+    @AutoProxy.Cached(maxEntries = 16)
+    long price(final int level);
+
+    /** Change price of the level, drops cached prices. */
+    @AutoProxy.Invalidates
+    void change(final int level, final long price);
+}
@@ -0,0 +1,12 @@
+package com.olku.autoproxy.sample;
+
+import com.olku.annotations.AutoProxy;
+import com.olku.annotations.RetNumber;
+
+/** Parking tickets storage, tickets of each car kept by own shard. */
+@AutoProxy(sharded = true, gate = true)
+public abstract class Tickets {
+    /** Issue ticket for the car, returns number of tickets of the car. */
+    @AutoProxy.Yield(RetNumber.MINUS_ONE)
+    public abstract int issue(@AutoProxy.ShardKey final long carId);
+}
@@ -0,0 +1,145 @@
+package com.olku.autoproxy.sample;
+
+import androidx.annotation.NonNull;
+
+import com.olku.runtime.Clock;
+import com.olku.runtime.ManualClock;
+
+import org.junit.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/** Bulkhead, rate limit, hedge and single flight of one proxy. */
+public class BarrierTest {
+    private final ManualClock clock = new ManualClock();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    /** Device that blocks each call till release. */
+    private final Barrier slow = new Barrier() {
+        @Override
+        public boolean open(final int lane) {
+            calls.incrementAndGet();
+            await();
+            return true;
+        }
+
+        @Override
+        public String plate(final int lane) {
+            await();
+            return "slow";
+        }
+
+        @Override
+        public long photo(final int lane) {
+            calls.incrementAndGet();
+            await();
+            return 42L;
+        }
+
+        private void await() {
+            entered.countDown();
+            try {
+                release.await(1, TimeUnit.SECONDS);
+            } catch (final InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    };
+
+    /** Device that answers immediately. */
+    private final Barrier fast = new Barrier() {
+        @Override
+        public boolean open(final int lane) {
+            return true;
+        }
+
+        @Override
+        public String plate(final int lane) {
+            return "fast";
+        }
+
+        @Override
+        public long photo(final int lane) {
+            return 7L;
+        }
+    };
+
+    private final Proxy_Barrier barrier = new Proxy_Barrier(slow, fast) {
+        @Override
+        public boolean predicate(@NonNull final String methodName, final Object... args) {
+            return true;
+        }
+
+        @NonNull
+        @Override
+        protected Clock clock() {
+            return clock;
+        }
+
+        @Override
+        public <R> R afterCall(@NonNull final String methodName, final R result) {
+            return result;
+        }
+
+        @Override
+        public long afterCallLong(final int methodId, @NonNull final String methodName, final long result) {
+            return result * 10;
+        }
+    };
+
+    @After
+    public void tearDown() {
+        release.countDown();
+    }
+
+    @Test
+    public void testBulkheadAndRateLimit() throws Exception {
+        final Thread first = new Thread(() -> barrier.open(1));
+        first.start();
+        assertTrue(entered.await(1, TimeUnit.SECONDS));
+
+        assertFalse("no free permit", barrier.open(2));
+
+        release.countDown();
+        first.join();
+        assertTrue("token not consumed by bulkhead rejection", barrier.open(3));
+        assertFalse("burst used", barrier.open(4));
+
+        // permit of the call rejected by rate limit returned
+        clock.advance(1, TimeUnit.SECONDS);
+        assertTrue(barrier.open(5));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testHedgedBySecondary() {
+        assertEquals("fast", barrier.plate(1));
+        assertEquals(1, barrier.hedgePlate.fired());
+        assertEquals(1, barrier.hedgePlate.won());
+    }
+
+    @Test
+    public void testConcurrentPhotosShared() throws Exception {
+        final long[] results = new long[2];
+        final Thread first = new Thread(() -> results[0] = barrier.photo(1));
+        first.start();
+        assertTrue(entered.await(1, TimeUnit.SECONDS));
+
+        final Thread second = new Thread(() -> results[1] = barrier.photo(1));
+        second.start();
+        while (barrier.flightPhoto.shared() == 0) Thread.yield();
+
+        release.countDown();
+        first.join();
+        second.join();
+
+        assertEquals(1, calls.get());
+        assertArrayEquals(new long[]{420L, 420L}, results);
+    }
+}
@@ -0,0 +1,118 @@
+package com.olku.autoproxy.sample;
+
+import androidx.annotation.NonNull;
+
+import com.olku.runtime.ManualScheduler;
+import com.olku.runtime.ProxyMetrics;
+import com.olku.runtime.Scheduler;
+
+import org.junit.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/** Batched calls of weak inner instance with metrics. */
+public class EntryLogTest {
+    private final List<String> batches = new ArrayList<>();
+    private final ManualScheduler scheduler = new ManualScheduler();
+    private final CountDownLatch collected = new CountDownLatch(1);
+    private volatile boolean attached = true;
+
+    private Proxy_EntryLog create(@NonNull final EntryLog log) {
+        return new Proxy_EntryLog(log) {
+            @Override
+            public boolean predicate(@NonNull final String methodName, final Object... args) {
+                return attached;
+            }
+
+            @NonNull
+            @Override
+            protected Scheduler scheduler() {
+                return scheduler;
+            }
+
+            @Override
+            protected void onInnerCollected() {
+                collected.countDown();
+            }
+        };
+    }
+
+    @Test
+    public void testBatchedByMaxSizeAndFlush() {
+        final EntryLog log = new EntryLog() {
+            @Override
+            public void onEntry(final String plate) {
+                fail("delivered in batches");
+            }
+
+            @Override
+            public void onEntries(final List<String> plates) {
+                batches.add(plates.toString());
+            }
+        };
+        final Proxy_EntryLog proxy = create(log);
+
+        for (final String plate : new String[]{"AA", "BB", "CC", "DD"}) proxy.onEntry(plate);
+        assertEquals("[[AA, BB, CC]]", batches.toString());
+
+        assertEquals(1, proxy.flushBatches());
+        assertEquals("[[AA, BB, CC], [DD]]", batches.toString());
+
+        final ProxyMetrics.Snapshot snapshot = proxy.metrics().snapshot(Proxy_EntryLog.Methods.ID_ONENTRY);
+        assertEquals(4, snapshot.calls);
+        assertEquals(0, snapshot.rejected);
+    }
+
+    @Test
+    public void testCollectedInstanceNotCalled() throws Exception {
+        final Proxy_EntryLog proxy = create(new EntryLog() {
+            @Override
+            public void onEntry(final String plate) {
+                fail("delivered in batches");
+            }
+
+            @Override
+            public void onEntries(final List<String> plates) {
+                fail("collected instance");
+            }
+        });
+
+        // collection is not guaranteed by single request
+        for (int i = 0; i < 50 && collected.getCount() > 0; i++) {
+            System.gc();
+            collected.await(100, TimeUnit.MILLISECONDS);
+        }
+        assertEquals(0, collected.getCount());
+
+        proxy.onEntry("AA");
+        assertEquals(0, proxy.flushBatches());
+        assertEquals(1, proxy.metrics().snapshot(Proxy_EntryLog.Methods.ID_ONENTRY).rejected);
+    }
+
+    @Test
+    public void testDelayedBatchCheckedAtDelivery() {
+        final Proxy_EntryLog proxy = create(new EntryLog() {
+            @Override
+            public void onEntry(final String plate) {
+                fail("delivered in batches");
+            }
+
+            @Override
+            public void onEntries(final List<String> plates) {
+                batches.add(plates.toString());
+            }
+        });
+
+        proxy.onEntry("AA");
+        attached = false;
+        scheduler.advance(1, TimeUnit.SECONDS);
+
+        assertTrue("detached at delivery", batches.isEmpty());
+        assertEquals(1, proxy.metrics().snapshot(Proxy_EntryLog.Methods.ID_ONENTRIES).rejected);
+    }
+}
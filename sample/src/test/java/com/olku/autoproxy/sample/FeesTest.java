@@ -0,0 +1,32 @@
+package com.olku.autoproxy.sample;
+
+import androidx.annotation.NonNull;
+
+import org.junit.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/** Parameters of the proxied method do not clash with generated code. */
+public class FeesTest {
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private final Proxy_Fees fees = new Proxy_Fees((key, result) -> {
+        calls.incrementAndGet();
+        return key + ":" + result;
+    }) {
+        @Override
+        public boolean predicate(@NonNull final String methodName, final Object... args) {
+            return true;
+        }
+    };
+
+    @Test
+    public void testCachedByParametersNamedLikeLocals() {
+        assertEquals("A:1", fees.fee("A", 1));
+        assertEquals("A:1", fees.fee("A", 1));
+        assertEquals("A:2", fees.fee("A", 2));
+        assertEquals(2, calls.get());
+    }
+}
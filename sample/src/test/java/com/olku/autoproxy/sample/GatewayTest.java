@@ -0,0 +1,37 @@
+package com.olku.autoproxy.sample;
+
+import androidx.annotation.NonNull;
+
+import com.olku.runtime.Balancer;
+
+import org.junit.*;
+
+import static org.junit.Assert.*;
+
+/** Pool variant with methods gate. */
+public class GatewayTest {
+    @Test
+    public void testGatedPool() {
+        final int[] calls = new int[2];
+        final Pool_Gateway pool = new Pool_Gateway(Balancer.ROUND_ROBIN,
+                carId -> ++calls[0] > 0, carId -> ++calls[1] > 0) {
+            @Override
+            public boolean predicate(@NonNull final String methodName, final Object... args) {
+                return true;
+            }
+        };
+
+        assertTrue(pool.open(1L));
+        assertTrue(pool.open(2L));
+        assertArrayEquals(new int[]{1, 1}, calls);
+
+        pool.disable(Pool_Gateway.Methods.ID_OPEN);
+        assertFalse(pool.open(3L));
+
+        pool.enableAll();
+        pool.balancer().setHealthy(0, false);
+        pool.balancer().setHealthy(1, false);
+        assertFalse(pool.open(4L));
+        assertArrayEquals(new int[]{1, 1}, calls);
+    }
+}
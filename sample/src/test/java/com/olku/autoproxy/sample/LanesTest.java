@@ -0,0 +1,78 @@
+package com.olku.autoproxy.sample;
+
+import androidx.annotation.NonNull;
+
+import com.olku.runtime.Balancer;
+
+import org.junit.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+/** Parameters of the proxied method do not clash with generated fan-out code. */
+public class LanesTest {
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    private static Lanes lane(final int cars) {
+        return new Lanes() {
+            @Override
+            public int waiting(final int delegate, final int results, final int i, final int len) {
+                return cars + delegate;
+            }
+
+            @Override
+            public void mark(final Object args, final boolean ask, final boolean called, final Object value, final int index) {
+                // nothing to do
+            }
+        };
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testFanOutByParametersNamedLikeLocals() {
+        final ScatterGather_Lanes gather = new ScatterGather_Lanes(executor, lane(2), lane(3)) {
+            @Override
+            public boolean predicate(@NonNull final String methodName, final Object... args) {
+                return true;
+            }
+
+            @Override
+            public <R> R reduce(final int methodId, @NonNull final String methodName, final R accumulated, final R result) {
+                return (R) Integer.valueOf((Integer) accumulated + (Integer) result);
+            }
+        };
+        assertEquals(7, gather.waiting(1, 0, 0, 0));
+
+        final Multicast_Lanes multicast = new Multicast_Lanes() {
+            @Override
+            public boolean predicate(@NonNull final Lanes delegate, final int methodId,
+                                     @NonNull final String methodName, final Object... args) {
+                return true;
+            }
+
+            @Override
+            public <R> R reduce(final int methodId, @NonNull final String methodName, final R accumulated, final R result) {
+                return (R) Integer.valueOf((Integer) accumulated + (Integer) result);
+            }
+        };
+        multicast.add(lane(2));
+        multicast.add(lane(3));
+        assertEquals(7, multicast.waiting(1, 0, 0, 0));
+        multicast.mark(null, true, true, null, 1);
+
+        final Pool_Lanes pool = new Pool_Lanes(Balancer.ROUND_ROBIN, lane(2), lane(3)) {
+            @Override
+            public boolean predicate(@NonNull final String methodName, final Object... args) {
+                return true;
+            }
+        };
+        assertEquals(3, pool.waiting(1, 0, 0, 0));
+        pool.mark(null, true, true, null, 1);
+    }
+}
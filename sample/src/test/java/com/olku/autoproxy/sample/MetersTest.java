@@ -0,0 +1,38 @@
+package com.olku.autoproxy.sample;
+
+import androidx.annotation.NonNull;
+
+import org.junit.*;
+
+import static org.junit.Assert.*;
+
+/** Parameters of the proxied method do not clash with generated code. */
+public class MetersTest {
+    private final Proxy_Meters meters = new Proxy_Meters(new Meters() {
+        @Override
+        public int apply(final int inner, final long started) {
+            return inner + (int) started;
+        }
+
+        @Override
+        public long read(final long startedAt, final boolean failed, final Object outcome, final int decision,
+                         final Object gateState, final Object admitted, final Object error, final Object event) {
+            return startedAt + decision;
+        }
+    }) {
+        @Override
+        public boolean predicate(@NonNull final String methodName, final Object... args) {
+            return true;
+        }
+    };
+
+    @Test
+    public void testMeasuredByParametersNamedLikeLocals() {
+        assertEquals(3, meters.apply(1, 2L));
+        assertEquals(5L, meters.read(2L, false, null, 3, null, null, null, null));
+        assertEquals(1, meters.metrics().snapshot(Proxy_Meters.Methods.ID_APPLY).calls);
+
+        meters.setGate(false);
+        assertEquals(0L, meters.read(2L, false, null, 3, null, null, null, null));
+    }
+}
@@ -0,0 +1,129 @@
+package com.olku.autoproxy.sample;
+
+import androidx.annotation.NonNull;
+
+import com.olku.runtime.ManualScheduler;
+import com.olku.runtime.Scheduler;
+
+import org.junit.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/** Rebindable view with gate, cached predicate, deferred and coalesced calls. */
+public class ParkingDisplayTest {
+    private final List<String> shown = new ArrayList<>();
+    private final ManualScheduler scheduler = new ManualScheduler();
+    private final AtomicInteger asked = new AtomicInteger();
+    private volatile boolean lampOk = true;
+
+    private final ParkingDisplay screen = new ParkingDisplay() {
+        @Override
+        public void showFree(final int free) {
+            shown.add("free:" + free);
+        }
+
+        @Override
+        public void showProgress(final int percent) {
+            shown.add("progress:" + percent);
+        }
+
+        @Override
+        public boolean blink(final int times) {
+            return true;
+        }
+    };
+
+    private final Proxy_ParkingDisplay display = new Proxy_ParkingDisplay() {
+        @Override
+        public boolean predicateShowFree(final int free) {
+            asked.incrementAndGet();
+            return true;
+        }
+
+        @NonNull
+        @Override
+        protected Scheduler scheduler() {
+            return scheduler;
+        }
+
+        @Override
+        public <R> R afterCall(@NonNull final String methodName, final R result) {
+            return result;
+        }
+
+        @Override
+        public boolean afterCallBoolean(final int methodId, @NonNull final String methodName, final boolean result) {
+            return result && lampOk;
+        }
+    };
+
+    @Test
+    public void testUnboundCallsDeferredTillRebind() {
+        assertFalse(display.blink(3));
+        display.showFree(10);
+        display.showFree(9);
+        assertEquals(0, asked.get());
+
+        display.rebind(screen);
+        assertTrue(display.blink(3));
+        assertEquals(1, display.flushDeferred());
+        assertEquals("[free:9]", shown.toString());
+
+        lampOk = false;
+        assertFalse(display.blink(3));
+    }
+
+    @Test
+    public void testGateAndCachedPredicate() {
+        display.rebind(screen);
+
+        display.showFree(10);
+        display.showFree(9);
+        assertEquals("cached predicate", 1, asked.get());
+
+        display.setGate(false);
+        display.showFree(8);
+        display.showFree(7);
+        display.setGate(true);
+        assertEquals(1, display.flushDeferred());
+
+        display.invalidate();
+        display.showFree(6);
+        assertEquals(2, asked.get());
+        assertEquals("[free:10, free:9, free:7, free:6]", shown.toString());
+    }
+
+    @Test
+    public void testBurstCoalesced() {
+        display.rebind(screen);
+
+        display.showProgress(10);
+        display.showProgress(50);
+        display.showProgress(100);
+        assertTrue(shown.isEmpty());
+
+        scheduler.advance(50, TimeUnit.MILLISECONDS);
+        assertEquals("[progress:100]", shown.toString());
+    }
+
+    @Test
+    public void testCoalescedCallCheckedAtDelivery() {
+        display.rebind(screen);
+
+        display.showProgress(10);
+        display.setGate(false);
+        scheduler.advance(50, TimeUnit.MILLISECONDS);
+        assertTrue("closed gate at delivery", shown.isEmpty());
+
+        display.setGate(true);
+        display.showProgress(20);
+        display.unbind();
+        scheduler.advance(50, TimeUnit.MILLISECONDS);
+        assertTrue("unbound at delivery", shown.isEmpty());
+    }
+}
@@ -0,0 +1,49 @@
+package com.olku.autoproxy.sample;
+
+import androidx.annotation.NonNull;
+
+import org.junit.*;
+
+import static org.junit.Assert.*;
+
+/** Multicast variant of abstract class. */
+public class ParkingListenerTest {
+    private final StringBuilder log = new StringBuilder();
+
+    private ParkingListener listener(final String id, final boolean accept) {
+        return new ParkingListener() {
+            @Override
+            public void onSpotTaken(final int spot) {
+                log.append(id).append(spot).append(';');
+            }
+
+            @Override
+            public boolean onSpotRequested(final int spot) {
+                log.append(id).append("?;");
+                return accept;
+            }
+        };
+    }
+
+    @Test
+    public void testBroadcastToSubscribers() {
+        final Multicast_ParkingListener multicast = new Multicast_ParkingListener() {
+            @Override
+            public boolean predicate(@NonNull final ParkingListener delegate, final int methodId,
+                                     @NonNull final String methodName, final Object... args) {
+                return true;
+            }
+        };
+
+        assertFalse(multicast.onSpotRequested(1));
+
+        multicast.add(listener("a", false));
+        multicast.add(listener("b", true));
+        multicast.onSpotTaken(7);
+
+        // FIRST policy: result of the first allowed subscriber
+        assertFalse(multicast.onSpotRequested(1));
+        assertEquals("a7;b7;a?;", log.toString());
+        assertTrue(multicast instanceof ParkingListener);
+    }
+}
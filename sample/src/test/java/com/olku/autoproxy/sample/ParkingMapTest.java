@@ -0,0 +1,54 @@
+package com.olku.autoproxy.sample;
+
+import androidx.annotation.NonNull;
+
+import org.junit.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/** Lazy inner instance created by the first allowed call. */
+public class ParkingMapTest {
+    private final AtomicInteger created = new AtomicInteger();
+    private volatile boolean ready = true;
+    private volatile boolean loaded;
+
+    private final Proxy_ParkingMap map = new Proxy_ParkingMap(() -> {
+        created.incrementAndGet();
+        return loaded ? () -> 3 : null;
+    }) {
+        @Override
+        public boolean predicate(@NonNull final String methodName, final Object... args) {
+            return ready;
+        }
+    };
+
+    @Test
+    public void testCreatedByFirstAllowedCall() {
+        loaded = true;
+        ready = false;
+        assertEquals(0, map.levels());
+        assertFalse(map.isInitialized());
+
+        ready = true;
+        assertEquals(3, map.levels());
+        assertEquals(3, map.levels());
+        assertTrue(map.isInitialized());
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    public void testNullInstanceNotPublished() {
+        try {
+            map.levels();
+            fail("supplier returned null");
+        } catch (final NullPointerException expected) {
+            assertFalse(map.isInitialized());
+        }
+
+        loaded = true;
+        assertEquals(3, map.levels());
+        assertEquals(2, created.get());
+    }
+}
@@ -0,0 +1,78 @@
+package com.olku.autoproxy.sample;
+
+import androidx.annotation.NonNull;
+
+import org.junit.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/** Async variant applies after call to the result of the future. */
+public class ParkingMeterTest {
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final AtomicInteger paid = new AtomicInteger();
+    private volatile boolean online = true;
+
+    private final Async_ParkingMeter meter = new Proxy_Async_ParkingMeter(new ParkingMeter() {
+        @Override
+        public int minutesLeft(final int spot) {
+            return spot * 10;
+        }
+
+        @Override
+        public String receipt(final int spot) {
+            return "spot-" + spot;
+        }
+
+        @Override
+        public void pay(final int spot, final long amount) {
+            // nothing to do
+        }
+    }, executor) {
+        @Override
+        public boolean predicate(@NonNull final String methodName, final Object... args) {
+            return online;
+        }
+
+        @Override
+        public int afterCallInt(final int methodId, @NonNull final String methodName, final int result) {
+            return result + 1;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <R> R afterCall(@NonNull final String methodName, final R result) {
+            if (Methods.PAY.equals(methodName)) paid.incrementAndGet();
+
+            return result instanceof String ? (R) ("#" + result) : result;
+        }
+    };
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testAfterCallAppliedToResult() throws Exception {
+        assertEquals(31, (int) meter.minutesLeft(3).get(1, TimeUnit.SECONDS));
+        assertEquals("#spot-3", meter.receipt(3).get(1, TimeUnit.SECONDS));
+
+        meter.pay(3, 100L).get(1, TimeUnit.SECONDS);
+        assertEquals(1, paid.get());
+    }
+
+    @Test
+    public void testYieldedResultNotPostProcessed() throws Exception {
+        online = false;
+
+        assertEquals(0, (int) meter.minutesLeft(3).get(1, TimeUnit.SECONDS));
+        meter.pay(3, 100L).get(1, TimeUnit.SECONDS);
+        assertEquals(0, paid.get());
+    }
+}
@@ -0,0 +1,49 @@
+package com.olku.autoproxy.sample;
+
+import androidx.annotation.NonNull;
+
+import com.olku.runtime.CircuitBreaker;
+import com.olku.runtime.ProxyMetrics;
+
+import org.junit.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/** Timeout combined with circuit breaker and metrics. */
+public class PaymentTerminalTest {
+    @Test
+    public void testTimeoutOpensCircuit() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Proxy_PaymentTerminal terminal = new Proxy_PaymentTerminal(delayMs -> {
+            calls.incrementAndGet();
+            try {
+                Thread.sleep(delayMs);
+            } catch (final InterruptedException ignored) {
+                return false;
+            }
+            return true;
+        }) {
+            @Override
+            public boolean predicate(@NonNull final String methodName, final Object... args) {
+                return true;
+            }
+        };
+
+        assertTrue(terminal.charge(0));
+
+        // hung terminal: yield value and failure of the call
+        assertFalse(terminal.charge(5_000));
+        assertFalse(terminal.charge(5_000));
+        assertEquals(CircuitBreaker.OPEN, terminal.breakerCharge.state());
+
+        // fail fast without terminal call
+        assertFalse(terminal.charge(0));
+        assertEquals(3, calls.get());
+
+        final ProxyMetrics.Snapshot snapshot = terminal.metrics().snapshot(Proxy_PaymentTerminal.Methods.ID_CHARGE);
+        assertEquals(2, snapshot.errors);
+        assertEquals(1, snapshot.rejected);
+    }
+}
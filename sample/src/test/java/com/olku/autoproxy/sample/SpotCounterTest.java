@@ -0,0 +1,59 @@
+package com.olku.autoproxy.sample;
+
+import androidx.annotation.NonNull;
+
+import org.junit.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.Assert.*;
+
+/** Actor mode with own mailbox of the proxy. */
+public class SpotCounterTest {
+    @Test
+    public void testOwnMailboxClosed() throws Exception {
+        final Set<Integer> spots = new HashSet<>();
+        final Proxy_SpotCounter counter = new Proxy_SpotCounter(new SpotCounter() {
+            @Override
+            public void occupy(final int spot) {
+                spots.add(spot);
+            }
+
+            @Override
+            public int occupied() {
+                return spots.size();
+            }
+        }) {
+            @Override
+            public boolean predicate(@NonNull final String methodName, final Object... args) {
+                return true;
+            }
+        };
+
+        final Thread[] producers = new Thread[4];
+        for (int i = 0; i < producers.length; i++) {
+            final int offset = i * 100;
+            producers[i] = new Thread(() -> {
+                for (int spot = 0; spot < 100; spot++) counter.occupy(offset + spot);
+            });
+            producers[i].start();
+        }
+        for (final Thread producer : producers) producer.join();
+
+        assertEquals(400, counter.occupied());
+
+        counter.closeMailbox();
+        counter.occupy(1000);
+
+        try {
+            counter.occupied();
+            fail("closed mailbox executes calls");
+        } catch (final RejectedExecutionException ignored) {
+            // expected
+        }
+
+        assertEquals(1, counter.mailbox().rejected());
+    }
+}
@@ -0,0 +1,122 @@
+package com.olku.autoproxy.sample;
+
+import androidx.annotation.NonNull;
+
+import org.junit.*;
+
+import static org.junit.Assert.*;
+
+/** Multicast variant with typed hooks and methods gate. */
+public class SpotListenerTest {
+    private final StringBuilder log = new StringBuilder();
+
+    private SpotListener listener(final int free) {
+        return new SpotListener() {
+            @Override
+            public void onSpotFreed(final int spot) {
+                log.append(free).append(':').append(spot).append(';');
+            }
+
+            @Override
+            public int freeSpots(final int level) {
+                return free * level;
+            }
+
+            @Override
+            public long lastVisit(final int spot) {
+                return free;
+            }
+        };
+    }
+
+    private Multicast_SpotListener multicast;
+
+    @Before
+    public void setUp() {
+        multicast = new Multicast_SpotListener() {
+            @Override
+            public boolean predicateOnSpotFreed(@NonNull final SpotListener delegate, final int spot) {
+                return spot > 0;
+            }
+
+            @Override
+            public <R> R reduce(final int methodId, @NonNull final String methodName, final R accumulated, final R result) {
+                throw new AssertionError("primitive reducer expected");
+            }
+
+            @Override
+            public int reduceInt(final int methodId, @NonNull final String methodName, final int accumulated, final int result) {
+                return accumulated + result;
+            }
+        };
+    }
+
+    @Test
+    public void testTypedHooksAndPrimitiveResults() {
+        assertEquals(0, multicast.freeSpots(1));
+        assertEquals(-1L, multicast.lastVisit(1));
+
+        multicast.add(listener(2));
+        multicast.add(listener(3));
+
+        multicast.onSpotFreed(5);
+        multicast.onSpotFreed(-1);
+
+        assertEquals("2:5;3:5;", log.toString());
+        assertEquals(10, multicast.freeSpots(2));
+        assertEquals(3L, multicast.lastVisit(1));
+    }
+
+    @Test
+    public void testFailedSubscriberDoesNotStopBroadcast() {
+        final IllegalStateException failure = new IllegalStateException("broken subscriber");
+
+        multicast.add(new SpotListener() {
+            @Override
+            public void onSpotFreed(final int spot) {
+                throw failure;
+            }
+
+            @Override
+            public int freeSpots(final int level) {
+                throw new IllegalArgumentException("broken count");
+            }
+
+            @Override
+            public long lastVisit(final int spot) {
+                return 0;
+            }
+        });
+        multicast.add(listener(2));
+
+        try {
+            multicast.onSpotFreed(5);
+            fail("failure of the subscriber is not re-thrown");
+        } catch (final IllegalStateException ex) {
+            assertSame(failure, ex);
+        }
+
+        // remaining subscriber received the call before first failure was re-thrown
+        assertEquals("2:5;", log.toString());
+
+        try {
+            multicast.freeSpots(1);
+            fail("failure of the subscriber is not re-thrown");
+        } catch (final IllegalArgumentException ignored) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testGateDeniesAllSubscribers() {
+        multicast.add(listener(2));
+
+        multicast.disable(Multicast_SpotListener.Methods.ID_FREESPOTS, Multicast_SpotListener.Methods.ID_ONSPOTFREED);
+        multicast.onSpotFreed(5);
+        assertEquals(0, multicast.freeSpots(2));
+        assertEquals("", log.toString());
+
+        multicast.enableAll();
+        assertEquals(4, multicast.freeSpots(2));
+    }
+}
@@ -0,0 +1,58 @@
+package com.olku.autoproxy.sample;
+
+import androidx.annotation.NonNull;
+
+import org.junit.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+/** Scatter-gather variant of abstract class with methods gate. */
+public class SpotSearchTest {
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    private static SpotSearch level(final int free) {
+        return new SpotSearch() {
+            @Override
+            public int freeSpots() {
+                return free;
+            }
+
+            @Override
+            public int anyFreeSpot() {
+                return free * 100;
+            }
+        };
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testGatedScatterGather() {
+        final ScatterGather_SpotSearch search = new ScatterGather_SpotSearch(executor, level(2), level(3)) {
+            @Override
+            public boolean predicate(@NonNull final String methodName, final Object... args) {
+                return true;
+            }
+
+            @Override
+            public <R> R reduce(final int methodId, @NonNull final String methodName, final R accumulated, final R result) {
+                return (R) Integer.valueOf((Integer) accumulated + (Integer) result);
+            }
+        };
+
+        assertEquals(5, search.freeSpots());
+
+        search.disable(ScatterGather_SpotSearch.Methods.ID_FREESPOTS);
+        assertEquals(0, search.freeSpots());
+        assertTrue(search.anyFreeSpot() > 0);
+
+        search.setGate(false);
+        assertEquals(-1, search.anyFreeSpot());
+    }
+}
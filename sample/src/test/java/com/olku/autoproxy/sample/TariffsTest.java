@@ -0,0 +1,75 @@
+package com.olku.autoproxy.sample;
+
+import androidx.annotation.NonNull;
+
+import org.junit.*;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/** Results cache with invalidation. */
+public class TariffsTest {
+    private final ConcurrentHashMap<Integer, Long> prices = new ConcurrentHashMap<>();
+    private final CountDownLatch reading = new CountDownLatch(1);
+    private final CountDownLatch changed = new CountDownLatch(1);
+    private volatile boolean slow;
+
+    private final Proxy_Tariffs tariffs = new Proxy_Tariffs(new Tariffs() {
+        @Override
+        public long price(final int level) {
+            final long price = prices.getOrDefault(level, 100L);
+
+            // stale value read, change of the tariff overlaps the call
+            if (slow) {
+                reading.countDown();
+                try {
+                    changed.await(1, TimeUnit.SECONDS);
+                } catch (final InterruptedException ignored) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            return price;
+        }
+
+        @Override
+        public void change(final int level, final long price) {
+            prices.put(level, price);
+        }
+    }) {
+        @Override
+        public boolean predicate(@NonNull final String methodName, final Object... args) {
+            return true;
+        }
+    };
+
+    @Test
+    public void testCachedUntilChange() {
+        assertEquals(100L, tariffs.price(1));
+        prices.put(1, 500L);
+        assertEquals(100L, tariffs.price(1));
+
+        tariffs.change(1, 200L);
+        assertEquals(200L, tariffs.price(1));
+        assertEquals(1, tariffs.cachePrice.hits());
+    }
+
+    @Test
+    public void testResultOverlappedByChangeNotCached() throws Exception {
+        slow = true;
+
+        final Thread reader = new Thread(() -> tariffs.price(1));
+        reader.start();
+        assertTrue(reading.await(1, TimeUnit.SECONDS));
+
+        tariffs.change(1, 200L);
+        changed.countDown();
+        reader.join();
+
+        slow = false;
+        assertEquals(200L, tariffs.price(1));
+    }
+}
@@ -0,0 +1,48 @@
+package com.olku.autoproxy.sample;
+
+import androidx.annotation.NonNull;
+
+import com.olku.runtime.ShardRouter;
+
+import org.junit.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/** Sharded variant of abstract class with methods gate. */
+public class TicketsTest {
+    private static Tickets shard() {
+        return new Tickets() {
+            private final Map<Long, Integer> issued = new HashMap<>();
+
+            @Override
+            public int issue(final long carId) {
+                final int count = issued.containsKey(carId) ? issued.get(carId) + 1 : 1;
+                issued.put(carId, count);
+                return count;
+            }
+        };
+    }
+
+    @Test
+    public void testGatedShards() {
+        final Sharded_Tickets tickets = new Sharded_Tickets(ShardRouter.CONSISTENT, shard(), shard(), shard()) {
+            @Override
+            public boolean predicate(@NonNull final String methodName, final Object... args) {
+                return true;
+            }
+        };
+
+        for (long carId = 0; carId < 10; carId++) {
+            assertEquals(1, tickets.issue(carId));
+        }
+
+        // same key always routed to the same shard
+        assertEquals(2, tickets.issue(7L));
+
+        tickets.setGate(false);
+        assertEquals(-1, tickets.issue(7L));
+    }
+}